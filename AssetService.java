@@ -0,0 +1,198 @@
+package pepse.util;
+
+import danogl.gui.rendering.ImageRenderable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The AssetService decodes the game's images once per process and shares them.
+ * Images are decoded on the fork-join pool, so preloading every image at startup decodes them in
+ * parallel, and asking for an image waits only for its own decoding. Decoded images, image
+ * renderables and sprite atlases are cached, so later avatars, or a restarted game, reuse them
+ * instead of decoding the same files again. The renderables handed out are shared and must not
+ * be changed.
+ */
+public final class AssetService {
+
+    /*
+     * The images decoded or being decoded, by path and transparency.
+     */
+    private static final Map<String, CompletableFuture<BufferedImage>> IMAGES = new ConcurrentHashMap<>();
+
+    /*
+     * The shared image renderables, by path and transparency.
+     */
+    private static final Map<String, ImageRenderable> RENDERABLES = new ConcurrentHashMap<>();
+
+    /*
+     * The shared sprite atlases, by frame paths and transparency.
+     */
+    private static final Map<String, SpriteAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    /*
+     * Not instantiable.
+     */
+    private AssetService() {
+    }
+
+    /**
+     * Starts decoding the given images in parallel, if they weren't already, without waiting.
+     * @param transparentTopLeft Whether the color of each image's top-left pixel is transparent.
+     * @param paths The image paths.
+     */
+    public static void preload(boolean transparentTopLeft, String... paths) {
+        for (String path : paths) {
+            decoding(path, transparentTopLeft);
+        }
+    }
+
+    /**
+     * Returns a shared renderable of an image, decoding it if it wasn't preloaded.
+     * @param path The image path.
+     * @param transparentTopLeft Whether the color of the image's top-left pixel is transparent.
+     * @return The shared renderable.
+     */
+    public static ImageRenderable renderable(String path, boolean transparentTopLeft) {
+        return RENDERABLES.computeIfAbsent(
+                keyOf(path, transparentTopLeft),
+                key -> new ImageRenderable(join(decoding(path, transparentTopLeft)))
+        );
+    }
+
+    /**
+     * Returns a shared atlas packing the given images as its frames, in order, decoding the ones
+     * that weren't preloaded. Once packed, the images live only in the atlas.
+     * @param transparentTopLeft Whether the color of each image's top-left pixel is transparent.
+     * @param paths The frame image paths.
+     * @return The shared atlas.
+     */
+    public static SpriteAtlas atlas(boolean transparentTopLeft, String... paths) {
+        return ATLASES.computeIfAbsent(
+                keyOf(String.join(File.pathSeparator, paths), transparentTopLeft),
+                key -> packAtlas(transparentTopLeft, paths)
+        );
+    }
+
+    /*
+     * Packs the given images into an atlas and drops them from the image cache.
+     *
+     * @param transparentTopLeft Whether the color of each image's top-left pixel is transparent.
+     * @param paths The frame image paths.
+     * @return The atlas.
+     */
+    private static SpriteAtlas packAtlas(boolean transparentTopLeft, String[] paths) {
+        preload(transparentTopLeft, paths);
+        BufferedImage[] images = new BufferedImage[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            images[i] = join(decoding(paths[i], transparentTopLeft));
+        }
+        SpriteAtlas atlas = SpriteAtlas.pack(images);
+        for (String path : paths) {
+            IMAGES.remove(keyOf(path, transparentTopLeft));
+        }
+        return atlas;
+    }
+
+    /*
+     * Returns the decoding of an image, starting it if needed.
+     *
+     * @param path The image path.
+     * @param transparentTopLeft Whether the color of the image's top-left pixel is transparent.
+     * @return The decoding.
+     */
+    private static CompletableFuture<BufferedImage> decoding(String path, boolean transparentTopLeft) {
+        return IMAGES.computeIfAbsent(
+                keyOf(path, transparentTopLeft),
+                key -> CompletableFuture.supplyAsync(
+                        () -> decode(path, transparentTopLeft),
+                        ForkJoinPool.commonPool()
+                )
+        );
+    }
+
+    /*
+     * Waits for a decoding, rethrowing its failure.
+     *
+     * @param decoding The decoding.
+     * @return The decoded image.
+     */
+    private static BufferedImage join(CompletableFuture<BufferedImage> decoding) {
+        try {
+            return decoding.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Decodes an image from the file system, or else from the class path.
+     *
+     * @param path The image path.
+     * @param transparentTopLeft Whether the color of the image's top-left pixel is transparent.
+     * @return The decoded image.
+     */
+    private static BufferedImage decode(String path, boolean transparentTopLeft) {
+        BufferedImage image;
+        try {
+            File file = new File(path);
+            if (file.exists()) {
+                image = ImageIO.read(file);
+            } else {
+                try (InputStream in = AssetService.class.getClassLoader().getResourceAsStream(path)) {
+                    image = in == null ? null : ImageIO.read(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (image == null) {
+            throw new UncheckedIOException(new IOException("Can't decode image " + path));
+        }
+        return transparentTopLeft ? withTransparentTopLeftColor(image) : image;
+    }
+
+    /*
+     * Copies an image, making every pixel of the color of its top-left pixel transparent.
+     *
+     * @param image The image.
+     * @return The copy.
+     */
+    private static BufferedImage withTransparentTopLeftColor(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        int transparentColor = pixels[0];
+        for (int i = 0; i < pixels.length; i++) {
+            if (pixels[i] == transparentColor) {
+                pixels[i] = 0;
+            }
+        }
+        BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        copy.setRGB(0, 0, width, height, pixels, 0, width);
+        return copy;
+    }
+
+    /*
+     * Returns the cache key of an asset.
+     *
+     * @param path The asset path.
+     * @param transparentTopLeft Whether the color of the top-left pixel is transparent.
+     * @return The key.
+     */
+    private static String keyOf(String path, boolean transparentTopLeft) {
+        return (transparentTopLeft ? "t:" : "o:") + path;
+    }
+}
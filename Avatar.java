@@ -2,22 +2,26 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.ImageReader;
+import danogl.components.CoordinateSpace;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
+import pepse.util.AssetService;
+import pepse.util.FixedStepClock;
+import pepse.util.FrameProfiler;
+import pepse.util.InputSource;
+import pepse.util.LiveInputSource;
 import pepse.util.Observer;
-import pepse.world.trees.Fruit;
-
-import java.awt.event.KeyEvent;
-import java.util.ArrayList;
+import pepse.util.OffsetRenderable;
+import pepse.util.SpatialObserverRegistry;
+import pepse.util.SpriteAtlas;
 
 /**
  * The Avatar class represents the player character in the game world.
  * It controls the movement, interaction, and energy management of the avatar.
  */
-public class Avatar extends GameObject {
+public class Avatar extends GameObject implements Collidable {
 
     /**
      * Avatar size.
@@ -29,11 +33,6 @@ public class Avatar extends GameObject {
      */
     public static final String AVATAR_TAG = "avatar";
 
-    /*
-     * avatar image path
-     */
-    private static final String AVATAR_IMAGE_PATH = "assets/idle_0.png";
-
     /*
      * x velocity.
      */
@@ -60,14 +59,14 @@ public class Avatar extends GameObject {
     private static final int ENERGY_TO_GAIN_WHEN_EATING_FRUIT = 10;
 
     /*
-     * energy to store when idle.
+     * energy to restore per second when idle.
      */
-    private static final float ENERGY_TO_RESTORE_WHEN_IDLE = 1;
+    private static final float ENERGY_RESTORED_PER_SECOND_WHEN_IDLE = 60;
 
     /*
-     * energy to lose when moving.
+     * energy to lose per second when moving.
      */
-    private static final float ENERGY_TO_LOSE_WHEN_MOVING = (float) 1/2;
+    private static final float ENERGY_LOST_PER_SECOND_WHEN_MOVING = 30;
 
     /*
      * energy to lose when jumping.
@@ -84,6 +83,11 @@ public class Avatar extends GameObject {
      */
     private static final int ENERGY_DISPLAY_SIZE = 30;
 
+    /*
+     * default maximal horizontal distance of a notified observer.
+     */
+    private static final float DEFAULT_OBSERVER_RADIUS = 1200;
+
     /*
      * time between clips.
      */
@@ -122,9 +126,19 @@ public class Avatar extends GameObject {
     };
 
     /*
-     * user input listener.
+     * every animation frame, packed in this order into the avatar's atlas.
+     */
+    private static final String[] ANIMATION_FRAMES = concat(IDLE_ANIMATION, RUN_ANIMATION, JUMP_ANIMATION);
+
+    /**
+     * The number of animation frames in the avatar's atlas.
+     */
+    public static final int ANIMATION_FRAME_COUNT = ANIMATION_FRAMES.length;
+
+    /*
+     * the source of the keys controlling the avatar.
      */
-    private final UserInputListener inputListener;
+    private final InputSource input;
 
     /*
      * current energy.
@@ -137,9 +151,14 @@ public class Avatar extends GameObject {
     private final EnergyDisplayer energyDisplayer;
 
     /*
-     * observers
+     * observers, indexed by their x coordinate.
+     */
+    private final SpatialObserverRegistry observers = new SpatialObserverRegistry(Chunk.WIDTH);
+
+    /*
+     * the maximal horizontal distance of a notified observer.
      */
-    private final ArrayList<Observer> observers = new ArrayList<>();
+    private float observerRadius = DEFAULT_OBSERVER_RADIUS;
 
     /*
      * animation renderable :
@@ -149,77 +168,192 @@ public class Avatar extends GameObject {
      */
     private final AnimationRenderable idleRenderable, runRenderable, jumpRenderable;
 
+    /*
+     * the renderable drawing the current animation between the last two simulation steps.
+     */
+    private final OffsetRenderable interpolatedRenderable;
+
+    /*
+     * the simulation clock, or null to simulate a single step per frame.
+     */
+    private FixedStepClock clock;
+
+    /*
+     * the position of the top-left corner before the last simulation step.
+     */
+    private float previousX, previousY;
+
+    /*
+     * whether the avatar stood on a solid in the collisions resolved since the last update.
+     */
+    private boolean grounded;
+
+    /*
+     * whether the avatar stands on a solid during the current update's simulation steps.
+     */
+    private boolean standing;
+
     /**
      * Constructs an Avatar object with the specified parameters.
      *
      * @param pos         The initial position of the avatar.
      * @param inputListener The user input listener for controlling the avatar.
-     * @param imageReader   The image reader for loading avatar images.
      */
-    public Avatar(Vector2 pos, UserInputListener inputListener, ImageReader imageReader) {
+    public Avatar(Vector2 pos, UserInputListener inputListener) {
+        this(pos, new LiveInputSource(inputListener));
+    }
+
+    /**
+     * Constructs an Avatar object controlled by the given input source, polled once per simulation
+     * step, so a recorded session replays step for step. The animation frames come from a sprite
+     * atlas shared by every avatar.
+     *
+     * @param pos         The initial position of the avatar.
+     * @param input       The source of the keys controlling the avatar.
+     */
+    public Avatar(Vector2 pos, InputSource input) {
+        this(pos, input, AssetService.atlas(true, ANIMATION_FRAMES));
+    }
+
+    /**
+     * Constructs an Avatar object animated from the given atlas, for example placeholder frames
+     * when the world is simulated without its assets.
+     *
+     * @param pos         The initial position of the avatar.
+     * @param input       The source of the keys controlling the avatar.
+     * @param atlas       The atlas of ANIMATION_FRAME_COUNT frames: the idle, run and jump
+     *                    animations, in this order.
+     */
+    public Avatar(Vector2 pos, InputSource input, SpriteAtlas atlas) {
         super(
                 new Vector2(pos.x() - AVATAR_SIZE, pos.y() - AVATAR_SIZE),
                 Vector2.ONES.mult(AVATAR_SIZE),
-                imageReader.readImage(AVATAR_IMAGE_PATH, true)
+                atlas.frame(0)
         );
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         transform().setAccelerationY(GRAVITY);
-        this.inputListener = inputListener;
+        this.input = input;
         this.curEnergy = MAX_ENERGY;
-        this.energyDisplayer = new EnergyDisplayer(new TextRenderable(String.valueOf(curEnergy)));
+        this.energyDisplayer = new EnergyDisplayer();
         this.idleRenderable = new AnimationRenderable(
-                IDLE_ANIMATION,
-                imageReader,
-                true,
+                atlas.frames(0, IDLE_ANIMATION.length),
                 TIME_BETWEEN_CLIPS
         );
         this.runRenderable = new AnimationRenderable(
-                RUN_ANIMATION,
-                imageReader,
-                true,
+                atlas.frames(IDLE_ANIMATION.length, RUN_ANIMATION.length),
                 TIME_BETWEEN_CLIPS
         );
         this.jumpRenderable = new AnimationRenderable(
-                JUMP_ANIMATION,
-                imageReader,
-                true,
+                atlas.frames(IDLE_ANIMATION.length + RUN_ANIMATION.length, JUMP_ANIMATION.length),
                 TIME_BETWEEN_CLIPS
         );
+        this.interpolatedRenderable = new OffsetRenderable(idleRenderable);
+        renderer().setRenderable(interpolatedRenderable);
+        this.previousX = getTopLeftCorner().x();
+        this.previousY = getTopLeftCorner().y();
         setTag(AVATAR_TAG);
     }
 
     /**
-     * Updates the avatar's state and behavior.
+     * Updates the avatar's state and behavior, running as many fixed simulation steps as its clock
+     * has for this frame, and rendering the avatar between the last two steps.
+     * The engine resolves collisions once per frame, so an avatar standing on a solid at the start
+     * of the frame is held on it, without gravity, until it jumps. The animation advances by the
+     * frame time, also on frames without simulation steps.
      *
      * @param deltaTime The time elapsed since the last update.
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
+        long start = FrameProfiler.start();
+        int steps = clock == null ? 1 : clock.getStepsThisFrame();
+        float step = clock == null ? deltaTime : clock.getStep();
+        standing = grounded;
+        grounded = false;
+        if (standing) {
+            transform().setVelocityY(0);
+        }
+        for (int i = 0; i < steps; i++) {
+            previousX = getTopLeftCorner().x();
+            previousY = getTopLeftCorner().y();
+            transform().setAccelerationY(standing ? 0 : GRAVITY);
+            super.update(step);
+            simulateStep(step);
+        }
+        chooseRenderable();
+        interpolatedRenderable.advance(deltaTime);
+        float remaining = clock == null ? 0 : 1 - clock.getAlpha();
+        interpolatedRenderable.setOffset(
+                (previousX - getTopLeftCorner().x()) * remaining,
+                (previousY - getTopLeftCorner().y()) * remaining
+        );
+        long hudStart = FrameProfiler.start();
+        energyDisplayer.updateEnergy(curEnergy);
+        FrameProfiler.record(FrameProfiler.Phase.HUD, hudStart);
+        FrameProfiler.record(FrameProfiler.Phase.AVATAR, start);
+    }
+
+    /**
+     * Returns the center of the avatar as drawn, between its positions at the last two simulation
+     * steps, for the camera to follow the avatar as smoothly as it is drawn.
+     *
+     * @return The interpolated center.
+     */
+    public Vector2 getInterpolatedCenter() {
+        return getCenter().add(new Vector2(
+                interpolatedRenderable.getOffsetX(),
+                interpolatedRenderable.getOffsetY()
+        ));
+    }
+
+    /**
+     * Starts decoding the avatar's animation frames in the background, so that creating the first
+     * avatar doesn't wait for every frame to decode in turn.
+     */
+    public static void preloadAssets() {
+        AssetService.preload(true, ANIMATION_FRAMES);
+    }
+
+    /**
+     * Sets the clock the avatar simulates its physics and energy on.
+     *
+     * @param clock The simulation clock, advanced before every update.
+     */
+    public void setSimulationClock(FixedStepClock clock) {
+        this.clock = clock;
+    }
+
+    /*
+     * Simulates a single step of the avatar's movement and energy, following the input.
+     *
+     * @param step The duration of the step.
+     */
+    private void simulateStep(float step) {
+        int keys = input.pollKeys();
+        float energyLostWhenMoving = ENERGY_LOST_PER_SECOND_WHEN_MOVING * step;
         float xVel = 0;
-        if(inputListener.isKeyPressed(KeyEvent.VK_LEFT))
+        if((keys & InputSource.KEY_LEFT) != 0)
             xVel -= VELOCITY_X;
-        if(inputListener.isKeyPressed(KeyEvent.VK_RIGHT))
+        if((keys & InputSource.KEY_RIGHT) != 0)
             xVel += VELOCITY_X;
-        if (xVel != 0 && curEnergy >= ENERGY_TO_LOSE_WHEN_MOVING) {
-                curEnergy -= ENERGY_TO_LOSE_WHEN_MOVING;
+        if (xVel != 0 && curEnergy >= energyLostWhenMoving) {
+                curEnergy -= energyLostWhenMoving;
         } else if (xVel != 0){
                 xVel = 0;
         }
         transform().setVelocityX(xVel);
-        if(inputListener.isKeyPressed(KeyEvent.VK_SPACE) && getVelocity().y() == 0)
+        if((keys & InputSource.KEY_JUMP) != 0 && standing)
             if (curEnergy >= ENERGY_TO_LOSE_WHEN_JUMPING) {
                 curEnergy -= ENERGY_TO_LOSE_WHEN_JUMPING;
                 notifyObservers();
+                standing = false;
                 transform().setVelocityY(VELOCITY_Y);
             } else {
                 transform().setVelocityY(0);
             }
-        if ((transform().getVelocity().equals(Vector2.ZERO)) && (curEnergy < MAX_ENERGY)){
-            curEnergy += Math.min(ENERGY_TO_RESTORE_WHEN_IDLE, MAX_ENERGY - curEnergy);
+        if (standing && xVel == 0 && (curEnergy < MAX_ENERGY)){
+            curEnergy += Math.min(ENERGY_RESTORED_PER_SECOND_WHEN_IDLE * step, MAX_ENERGY - curEnergy);
         }
-        chooseRenderable();
-        energyDisplayer.updateEnergy(curEnergy);
     }
 
     /**
@@ -232,12 +366,31 @@ public class Avatar extends GameObject {
     }
 
     /**
-     * Registers an observer to be notified of avatar events.
+     * Registers an observer to be notified of avatar events happening near it.
      *
      * @param observer The observer to be registered.
+     * @param x        The x coordinate of the observer.
+     */
+    public void registerObserver(Observer observer, float x){
+        observers.register(observer, x);
+    }
+
+    /**
+     * Removes an observer so it is no longer notified of avatar events, in constant time.
+     *
+     * @param observer The observer to be removed.
      */
-    public void registerObserver(Observer observer){
-        observers.add(observer);
+    public void removeObserver(Observer observer){
+        observers.remove(observer);
+    }
+
+    /**
+     * Sets the maximal horizontal distance from the avatar of a notified observer.
+     *
+     * @param observerRadius The maximal distance.
+     */
+    public void setObserverRadius(float observerRadius){
+        this.observerRadius = observerRadius;
     }
 
     /**
@@ -249,17 +402,70 @@ public class Avatar extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        if (other.getTag().equals(Fruit.FRUIT_TAG)){
+        standOn(other);
+        if (CollisionMatrix.typeOf(other) == CollisionMatrix.FRUIT){
             setEnergy(Math.min(curEnergy + ENERGY_TO_GAIN_WHEN_EATING_FRUIT, MAX_ENERGY));
         }
     }
 
+    /**
+     * Handles the avatar staying in contact with another game object, such as the ground.
+     *
+     * @param other     The other game object involved in the collision.
+     * @param collision The collision information.
+     */
+    @Override
+    public void onCollisionStay(GameObject other, Collision collision) {
+        super.onCollisionStay(other, collision);
+        standOn(other);
+    }
+
+    /**
+     * Stands the avatar on the ground until it next jumps, for when its collisions are resolved
+     * outside the engine.
+     */
+    public void land() {
+        grounded = true;
+    }
+
+    /**
+     * Returns the collision type id of the avatar.
+     *
+     * @return {@link CollisionMatrix#AVATAR}.
+     */
+    @Override
+    public int collisionType() {
+        return CollisionMatrix.AVATAR;
+    }
+
+    /*
+     * Marks the avatar as standing if it collided with the top of a solid.
+     *
+     * @param other The game object collided with.
+     */
+    private void standOn(GameObject other) {
+        int type = CollisionMatrix.typeOf(other);
+        if ((type == CollisionMatrix.TERRAIN || type == CollisionMatrix.TRUNK) &&
+                getCenter().y() < other.getTopLeftCorner().y()) {
+            grounded = true;
+        }
+    }
+
     /*
-     * Notifies all registered observers of avatar events.
+     * Notifies the registered observers within the observer radius of avatar events, recorded as a
+     * flight recorder event.
      */
     private void notifyObservers(){
-        for (Observer observer : observers){
-            observer.update();
+        ObserverNotifyEvent event = new ObserverNotifyEvent();
+        event.begin();
+        int notified = observers.notifyNear(getCenter().x(), observerRadius);
+        event.end();
+        if (event.shouldCommit()) {
+            event.x = getCenter().x();
+            event.radius = observerRadius;
+            event.notifiedCount = notified;
+            event.registeredCount = observers.size();
+            event.commit();
         }
     }
 
@@ -272,12 +478,12 @@ public class Avatar extends GameObject {
      */
     private void chooseRenderable(){
         if (getVelocity().x() != 0){
-            renderer().setRenderable(runRenderable);
+            interpolatedRenderable.setRenderable(runRenderable);
             renderer().setIsFlippedHorizontally(!(getVelocity().x() > 0));
         } else if (getVelocity().y() != 0){
-            renderer().setRenderable(jumpRenderable);
+            interpolatedRenderable.setRenderable(jumpRenderable);
         } else {
-            renderer().setRenderable(idleRenderable);
+            interpolatedRenderable.setRenderable(idleRenderable);
         }
     }
 
@@ -293,34 +499,87 @@ public class Avatar extends GameObject {
 
     /*
      * Inner class representing the energy displayer for the avatar.
-     * Displays the current energy level as text.
+     * Displays the current energy level as whole text, switching between text renderables built
+     * once for every level, so the display only changes when the whole level does.
      */
     private class EnergyDisplayer extends GameObject{
         /*
-         * text renderable.
+         * text renderables, one per whole energy level.
+         */
+        private final TextRenderable[] renderables;
+
+        /*
+         * the displayed whole energy level.
          */
-        private final TextRenderable renderable;
+        private int displayedEnergy;
 
         /**
-         * Constructs an EnergyDisplayer object with the specified parameters.
+         * Constructs an EnergyDisplayer object displaying the maximal energy.
+         */
+        public EnergyDisplayer(){
+            this(createEnergyRenderables());
+        }
+
+        /*
+         * Constructs an EnergyDisplayer object displaying the maximal energy, fixed to the corner
+         * of the screen however the camera moves.
          *
-         * @param renderable The text renderable used to display energy.
+         * @param renderables The text renderables, one per whole energy level.
          */
-        public EnergyDisplayer(TextRenderable renderable){
+        private EnergyDisplayer(TextRenderable[] renderables){
             super(
                     Vector2.ONES.mult(ENERGY_POS_PADDING),
                     Vector2.ONES.mult(ENERGY_DISPLAY_SIZE),
-                    renderable);
-            this.renderable = renderable;
+                    renderables[MAX_ENERGY]);
+            setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+            this.renderables = renderables;
+            this.displayedEnergy = MAX_ENERGY;
         }
 
         /**
-         * Updates the energy displayed by the displayer.
+         * Updates the energy displayed by the displayer, if its whole level changed.
          *
          * @param energy The current energy level to display.
          */
         public void updateEnergy(float energy){
-            renderable.setString(String.valueOf(energy));
+            int wholeEnergy = Math.max(0, Math.min((int) energy, MAX_ENERGY));
+            if (wholeEnergy != displayedEnergy) {
+                displayedEnergy = wholeEnergy;
+                renderer().setRenderable(renderables[wholeEnergy]);
+            }
+        }
+    }
+
+    /*
+     * Concatenates animation frame paths.
+     *
+     * @param animations The frame paths of each animation.
+     * @return Every frame path, in order.
+     */
+    private static String[] concat(String[]... animations){
+        int length = 0;
+        for (String[] animation : animations) {
+            length += animation.length;
+        }
+        String[] frames = new String[length];
+        int i = 0;
+        for (String[] animation : animations) {
+            System.arraycopy(animation, 0, frames, i, animation.length);
+            i += animation.length;
+        }
+        return frames;
+    }
+
+    /*
+     * Creates the text renderables of the energy displayer.
+     *
+     * @return A text renderable per whole energy level, from 0 to MAX_ENERGY.
+     */
+    private static TextRenderable[] createEnergyRenderables(){
+        TextRenderable[] renderables = new TextRenderable[MAX_ENERGY + 1];
+        for (int i = 0; i <= MAX_ENERGY; i++) {
+            renderables[i] = new TextRenderable(String.valueOf(i));
         }
+        return renderables;
     }
 }
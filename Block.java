@@ -1,28 +1,104 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
 
 /**
  * The Block class represents a block in the game.
  */
-public class Block extends GameObject {
+public class Block extends PooledGameObject implements Collidable {
 
     /**
      * The size of the block.
      */
     public static final int SIZE = 30;
 
+    /*
+     * The maximal number of idle blocks kept for reuse.
+     */
+    private static final int MAX_IDLE_BLOCKS = 4096;
+
+    /*
+     * The tag of a block until its user tags it, the engine's default.
+     */
+    private static final String UNTAGGED = "";
+
+    /*
+     * The pool of released blocks.
+     */
+    private static final ObjectPool<Block> POOL = new ObjectPool<>(MAX_IDLE_BLOCKS);
+
     /**
      * Constructor for the Block class.
      * @param topLeftCorner The top left corner of the block.
      * @param renderable The Renderable instance to render the block.
      */
     public Block(Vector2 topLeftCorner, Renderable renderable){
-        super(topLeftCorner,Vector2.ONES.mult(SIZE),renderable);
+        this(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+    }
+
+    /**
+     * Constructor for a block spanning several cells, used as a merged terrain collider.
+     * @param topLeftCorner The top left corner of the block.
+     * @param dimensions The dimensions of the block.
+     * @param renderable The Renderable instance to render the block, may be null.
+     */
+    public Block(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable){
+        super(topLeftCorner, dimensions, renderable);
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
+
+    /**
+     * Creates a single-cell block, reusing a released block if there is one.
+     * @param topLeftCorner The top left corner of the block.
+     * @param renderable The Renderable instance to render the block.
+     * @return The block.
+     */
+    public static Block create(Vector2 topLeftCorner, Renderable renderable) {
+        return create(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+    }
+
+    /**
+     * Creates a block, reusing a released block if there is one.
+     * @param topLeftCorner The top left corner of the block.
+     * @param dimensions The dimensions of the block.
+     * @param renderable The Renderable instance to render the block, may be null.
+     * @return The block.
+     */
+    public static Block create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        Block block = POOL.acquire();
+        if (block == null) {
+            return new Block(topLeftCorner, dimensions, renderable);
+        }
+        block.reset(topLeftCorner, dimensions, renderable, UNTAGGED);
+        return block;
+    }
+
+    /**
+     * Releases a block that left the game for reuse.
+     * @param block The block, must not be used afterwards.
+     */
+    public static void release(Block block) {
+        POOL.release(block);
+    }
+
+    /**
+     * Returns the pool of released blocks, for its statistics.
+     * @return The block pool.
+     */
+    public static ObjectPool<Block> pool() {
+        return POOL;
+    }
+
+    /**
+     * Returns the collision type id of the block.
+     * @return {@link CollisionMatrix#TERRAIN}.
+     */
+    @Override
+    public int collisionType() {
+        return CollisionMatrix.TERRAIN;
+    }
 }
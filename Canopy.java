@@ -0,0 +1,346 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.world.Block;
+import pepse.world.PooledGameObject;
+
+import java.awt.*;
+import java.util.SplittableRandom;
+
+/**
+ * The Canopy class represents the whole crown of a tree as a single game object.
+ * It keeps the sway of each of its leafs in compact arrays and draws them all through a
+ * {@link CanopyRenderable}, instead of one leaf object per foliage cell. Its leafs sway and spin
+ * like leaf objects, driven by a {@link LeafSwaySystem}.
+ */
+public class Canopy extends PooledGameObject {
+
+    /*
+     * the canopy tag.
+     */
+    private static final String CANOPY_TAG = "canopy";
+
+    /**
+     * the space around the foliage cells left for leafs wider than a block and turned leafs.
+     */
+    static final float PADDING = Block.SIZE;
+
+    /*
+     * the maximal number of idle canopies kept for reuse.
+     */
+    private static final int MAX_IDLE_CANOPIES = 256;
+
+    /*
+     * the pool of released canopies.
+     */
+    private static final ObjectPool<Canopy> POOL = new ObjectPool<>(MAX_IDLE_CANOPIES);
+
+    /*
+     * the renderable drawing the leafs.
+     */
+    private final CanopyRenderable renderable;
+
+    /*
+     * the delay before each leaf starts swaying.
+     */
+    private final float[] swayDelays;
+
+    /*
+     * the inverse of the time a single sway of each leaf takes.
+     */
+    private final float[] swayRates;
+
+    /*
+     * the angle each leaf sways from, it sways to its negation.
+     */
+    private final float[] initialAngles;
+
+    /*
+     * the width each leaf sways from.
+     */
+    private final float[] initialWidths;
+
+    /*
+     * the width change of each leaf over a single sway.
+     */
+    private final float[] widthChanges;
+
+    /*
+     * the sway parameters drawn for the last added leaf.
+     */
+    private final float[] drawnSway;
+
+    /*
+     * the sway system the canopy is registered in, or null.
+     */
+    private LeafSwaySystem swaySystem;
+
+    /*
+     * the slot of the canopy in its sway system.
+     */
+    private int swaySlot = -1;
+
+    /*
+     * the clock time the canopy started swaying at, or NaN if it was never registered.
+     */
+    private double swayStartTime = Double.NaN;
+
+    /*
+     * the clock time the current spin started at, or NaN if the canopy isn't spinning.
+     */
+    private double spinStartTime = Double.NaN;
+
+    /*
+     * the angle the canopy's leafs turn by over the current spin.
+     */
+    private float spinAngle;
+
+    /*
+     * the inverse of the duration of the current spin.
+     */
+    private float spinRate;
+
+    /**
+     * Constructs an empty canopy covering the foliage of a tree.
+     *
+     * @param foliageTopLeftCorner The top-left corner of the top-left foliage cell.
+     * @param foliageSize          The number of foliage cells on each side.
+     */
+    public Canopy(Vector2 foliageTopLeftCorner, int foliageSize) {
+        this(
+                topLeftCornerOf(foliageTopLeftCorner),
+                dimensionsOf(foliageSize),
+                new CanopyRenderable(foliageSize * foliageSize)
+        );
+    }
+
+    /*
+     * Constructs an empty canopy with the given bounds and renderable.
+     *
+     * @param topLeftCorner The top-left corner of the canopy.
+     * @param dimensions    The dimensions of the canopy.
+     * @param renderable    The renderable drawing the leafs.
+     */
+    private Canopy(Vector2 topLeftCorner, Vector2 dimensions, CanopyRenderable renderable) {
+        super(topLeftCorner, dimensions, renderable);
+        this.renderable = renderable;
+        int capacity = renderable.leafCapacity();
+        this.swayDelays = new float[capacity];
+        this.swayRates = new float[capacity];
+        this.initialAngles = new float[capacity];
+        this.initialWidths = new float[capacity];
+        this.widthChanges = new float[capacity];
+        this.drawnSway = new float[Leaf.SWAY_PARAMETER_COUNT];
+        setTag(CANOPY_TAG);
+    }
+
+    /**
+     * Creates an empty canopy covering the foliage of a tree, reusing a released canopy if there
+     * is one large enough. A released canopy too small is dropped, counted as a pool miss.
+     *
+     * @param foliageTopLeftCorner The top-left corner of the top-left foliage cell.
+     * @param foliageSize          The number of foliage cells on each side.
+     * @return The canopy.
+     */
+    public static Canopy create(Vector2 foliageTopLeftCorner, int foliageSize) {
+        Canopy canopy = POOL.acquire();
+        if (canopy != null && canopy.renderable.leafCapacity() < foliageSize * foliageSize) {
+            POOL.discard(canopy);
+            canopy = null;
+        }
+        if (canopy == null) {
+            return new Canopy(foliageTopLeftCorner, foliageSize);
+        }
+        canopy.reset(
+                topLeftCornerOf(foliageTopLeftCorner),
+                dimensionsOf(foliageSize),
+                canopy.renderable,
+                CANOPY_TAG
+        );
+        canopy.renderable.clear();
+        return canopy;
+    }
+
+    /**
+     * Releases a canopy that left the game, and its sway system, for reuse.
+     *
+     * @param canopy The canopy, must not be used afterwards.
+     */
+    public static void release(Canopy canopy) {
+        canopy.setSway(null, -1);
+        canopy.swayStartTime = Double.NaN;
+        canopy.spinStartTime = Double.NaN;
+        POOL.release(canopy);
+    }
+
+    /**
+     * Returns the pool of released canopies, for its statistics.
+     *
+     * @return The canopy pool.
+     */
+    public static ObjectPool<Canopy> pool() {
+        return POOL;
+    }
+
+    /**
+     * Adds a leaf to the canopy and draws its sway, as {@link Leaf#create} does for a leaf object.
+     *
+     * @param topLeftCorner The top-left corner of the leaf.
+     * @param color         The color of the leaf.
+     * @param cycleLength   The length of the cycle for the leaf's behavior.
+     * @param random        The random stream the leaf's animation is derived from.
+     */
+    public void addLeaf(Vector2 topLeftCorner, Color color, float cycleLength, SplittableRandom random) {
+        Leaf.drawSway(random, cycleLength, drawnSway);
+        int i = renderable.addLeaf(
+                topLeftCorner.subtract(getTopLeftCorner()),
+                color,
+                Block.SIZE
+        );
+        swayDelays[i] = drawnSway[Leaf.SWAY_DELAY];
+        swayRates[i] = 1 / drawnSway[Leaf.SWAY_CYCLE_LENGTH];
+        initialAngles[i] = drawnSway[Leaf.SWAY_INITIAL_ANGLE];
+        initialWidths[i] = drawnSway[Leaf.SWAY_INITIAL_WIDTH];
+        widthChanges[i] = drawnSway[Leaf.SWAY_FINAL_WIDTH] - drawnSway[Leaf.SWAY_INITIAL_WIDTH];
+    }
+
+    /**
+     * @return The number of leafs of the canopy.
+     */
+    public int leafCount() {
+        return renderable.leafCount();
+    }
+
+    /**
+     * Spins every leaf of the canopy on top of its sway, if the canopy is registered in a sway
+     * system.
+     *
+     * @param angle The angle to turn by.
+     * @param duration The duration of the spin, in seconds.
+     */
+    public void spin(float angle, float duration) {
+        if (swaySystem != null) {
+            swaySystem.spin(this, angle, duration);
+        }
+    }
+
+    /**
+     * Determines whether the canopy should collide with the specified game object.
+     *
+     * @param other The game object to check collision with.
+     * @return false
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * @return The slot of the canopy in its sway system, or -1 if it isn't registered in one.
+     */
+    int getSwaySlot() {
+        return swaySlot;
+    }
+
+    /**
+     * Sets the sway system the canopy is registered in and its slot there.
+     * @param swaySystem The sway system, or null if the canopy isn't registered in one.
+     * @param swaySlot The slot, or -1 if the canopy isn't registered in a sway system.
+     */
+    void setSway(LeafSwaySystem swaySystem, int swaySlot) {
+        this.swaySystem = swaySystem;
+        this.swaySlot = swaySlot;
+    }
+
+    /**
+     * @return The clock time the canopy started swaying at, or NaN if it was never registered.
+     */
+    double getSwayStartTime() {
+        return swayStartTime;
+    }
+
+    /**
+     * Sets the clock time the canopy started swaying at.
+     * @param swayStartTime The clock time, or NaN.
+     */
+    void setSwayStartTime(double swayStartTime) {
+        this.swayStartTime = swayStartTime;
+    }
+
+    /**
+     * Starts a spin of every leaf, restarting any spin in progress.
+     *
+     * @param time The clock time the spin starts at.
+     * @param angle The angle to turn by.
+     * @param duration The duration of the spin, in seconds.
+     */
+    void startSpin(double time, float angle, float duration) {
+        spinStartTime = time;
+        spinAngle = angle;
+        spinRate = 1 / duration;
+    }
+
+    /**
+     * Sways every leaf to its pose at the given clock time, the same way the sway system sways
+     * leaf objects.
+     *
+     * @param time The clock time.
+     */
+    void sway(double time) {
+        float spin = spinAt(time);
+        for (int i = 0; i < renderable.leafCount(); i++) {
+            float elapsed = (float) (time - swayStartTime) - swayDelays[i];
+            if (elapsed < 0) {
+                renderable.setLeaf(i, spin, Block.SIZE);
+                continue;
+            }
+            float phase = (elapsed * swayRates[i]) % 2;
+            float progress = phase <= 1 ? phase : 2 - phase;
+            renderable.setLeaf(
+                    i,
+                    initialAngles[i] * (1 - 2 * progress) + spin,
+                    initialWidths[i] + widthChanges[i] * progress
+            );
+        }
+    }
+
+    /*
+     * Returns the top-left corner of a canopy, padded around its foliage.
+     *
+     * @param foliageTopLeftCorner The top-left corner of the top-left foliage cell.
+     * @return The top-left corner of the canopy.
+     */
+    private static Vector2 topLeftCornerOf(Vector2 foliageTopLeftCorner) {
+        return foliageTopLeftCorner.subtract(Vector2.ONES.mult(PADDING));
+    }
+
+    /*
+     * Returns the dimensions of a canopy, padded around its foliage.
+     *
+     * @param foliageSize The number of foliage cells on each side.
+     * @return The dimensions of the canopy.
+     */
+    private static Vector2 dimensionsOf(int foliageSize) {
+        return Vector2.ONES.mult(foliageSize * Block.SIZE + 2 * PADDING);
+    }
+
+    /*
+     * Returns the current spin angle of the canopy's leafs, ending a finished spin.
+     *
+     * @param time The clock time.
+     * @return The angle to add to the leafs' sway.
+     */
+    private float spinAt(double time) {
+        if (Double.isNaN(spinStartTime)) {
+            return 0;
+        }
+        float progress = (float) (time - spinStartTime) * spinRate;
+        if (progress >= 1) {
+            spinStartTime = Double.NaN;
+            return 0;
+        }
+        return spinAngle * progress;
+    }
+}
@@ -0,0 +1,151 @@
+package pepse.world.trees;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+
+/**
+ * The CanopyRenderable draws every leaf of a tree crown from compact per-leaf arrays, so a whole
+ * crown renders through a single game object. Each leaf is a rectangle as tall as a block, with
+ * its own color, offset, angle and width, rotated around its center like a leaf object.
+ */
+public class CanopyRenderable implements Renderable {
+
+    /*
+     * The x offset of each leaf's top-left corner from the canopy's top-left corner.
+     */
+    private final float[] offsetXs;
+
+    /*
+     * The y offset of each leaf's top-left corner from the canopy's top-left corner.
+     */
+    private final float[] offsetYs;
+
+    /*
+     * The color of each leaf.
+     */
+    private final Color[] colors;
+
+    /*
+     * The current angle of each leaf, in degrees.
+     */
+    private final float[] angles;
+
+    /*
+     * The current width of each leaf.
+     */
+    private final float[] widths;
+
+    /*
+     * The number of leafs.
+     */
+    private int count;
+
+    /**
+     * Constructs a new, empty CanopyRenderable.
+     *
+     * @param capacity The maximal number of leafs.
+     */
+    public CanopyRenderable(int capacity) {
+        this.offsetXs = new float[capacity];
+        this.offsetYs = new float[capacity];
+        this.colors = new Color[capacity];
+        this.angles = new float[capacity];
+        this.widths = new float[capacity];
+        this.count = 0;
+    }
+
+    /**
+     * Adds a leaf.
+     *
+     * @param offset The offset of the leaf's top-left corner from the canopy's top-left corner.
+     * @param color The color of the leaf.
+     * @param width The initial width of the leaf.
+     * @return The index of the leaf.
+     */
+    int addLeaf(Vector2 offset, Color color, float width) {
+        int i = count++;
+        offsetXs[i] = offset.x();
+        offsetYs[i] = offset.y();
+        colors[i] = color;
+        angles[i] = 0;
+        widths[i] = width;
+        return i;
+    }
+
+    /**
+     * Removes every leaf, for the canopy to be reused.
+     */
+    void clear() {
+        count = 0;
+    }
+
+    /**
+     * Sets the current pose of a leaf.
+     *
+     * @param i The index of the leaf.
+     * @param angle The angle of the leaf, in degrees.
+     * @param width The width of the leaf.
+     */
+    void setLeaf(int i, float angle, float width) {
+        angles[i] = angle;
+        widths[i] = width;
+    }
+
+    /**
+     * @return The number of leafs.
+     */
+    public int leafCount() {
+        return count;
+    }
+
+    /**
+     * @return The maximal number of leafs.
+     */
+    public int leafCapacity() {
+        return widths.length;
+    }
+
+    /**
+     * Renders every leaf of the canopy. The canopy's own angle and flips are ignored, as a canopy
+     * never turns as a whole.
+     *
+     * @param g The graphics to draw with.
+     * @param topLeftCorner The top-left corner of the canopy on screen.
+     * @param dimensions The dimensions of the canopy.
+     * @param degreesCounterClockwise The angle of the canopy, ignored.
+     * @param isFlippedHorizontally Whether the canopy is flipped horizontally, ignored.
+     * @param isFlippedVertically Whether the canopy is flipped vertically, ignored.
+     * @param opaqueness The opaqueness of the canopy.
+     */
+    @Override
+    public void render(
+            Graphics2D g,
+            Vector2 topLeftCorner,
+            Vector2 dimensions,
+            double degreesCounterClockwise,
+            boolean isFlippedHorizontally,
+            boolean isFlippedVertically,
+            double opaqueness
+    ) {
+        AffineTransform transform = g.getTransform();
+        Composite composite = g.getComposite();
+        if (opaqueness < 1) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+        }
+        float x = topLeftCorner.x();
+        float y = topLeftCorner.y();
+        for (int i = 0; i < count; i++) {
+            float width = widths[i];
+            g.translate(x + offsetXs[i] + width / 2, y + offsetYs[i] + Block.SIZE / 2f);
+            g.rotate(-Math.toRadians(angles[i]));
+            g.setColor(colors[i]);
+            g.fillRect(Math.round(-width / 2), -Block.SIZE / 2, Math.round(width), Block.SIZE);
+            g.setTransform(transform);
+        }
+        g.setComposite(composite);
+    }
+}
@@ -0,0 +1,215 @@
+package pepse.world;
+
+import danogl.GameObject;
+import pepse.world.trees.Tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed-width vertical slice of the world, holding every game object generated for it.
+ * Chunks are generated off the game thread and handed to the {@link ChunkManager}, which adds
+ * their objects to the game a bounded batch at a time and discards them as the avatar travels.
+ */
+class Chunk {
+
+    /**
+     * The width of a chunk, in blocks.
+     */
+    static final int WIDTH_IN_BLOCKS = 16;
+
+    /**
+     * The width of a chunk, in pixels.
+     */
+    static final int WIDTH = WIDTH_IN_BLOCKS * Block.SIZE;
+
+    /*
+     * The index of the chunk, chunk i covers [i * WIDTH, (i + 1) * WIDTH).
+     */
+    private final int index;
+
+    /*
+     * The terrain of the chunk.
+     */
+    private final TerrainSection terrain;
+
+    /*
+     * The trees of the chunk.
+     */
+    private final List<Tree> trees;
+
+    /*
+     * Every game object of the chunk, in the order they are added to the game.
+     */
+    private final List<GameObject> objects;
+
+    /*
+     * The layer of each game object of the chunk.
+     */
+    private final int[] layers;
+
+    /*
+     * The number of game objects already added to the game.
+     */
+    private int addedCount;
+
+    /*
+     * Whether the animated objects of the chunk are suspended, out of view.
+     */
+    private boolean hidden;
+
+    /**
+     * Constructs a new chunk.
+     * @param index The index of the chunk.
+     * @param terrain The terrain of the chunk.
+     * @param trees The trees of the chunk.
+     */
+    Chunk(int index, TerrainSection terrain, List<Tree> trees) {
+        this.index = index;
+        this.terrain = terrain;
+        this.trees = trees;
+        this.objects = new ArrayList<>();
+        List<Integer> layers = new ArrayList<>();
+        for (Block collider : terrain.getColliders()) {
+            objects.add(collider);
+            layers.add(CollisionMatrix.SOLIDS_LAYER);
+        }
+        for (GameObject tile : terrain.getTiles()) {
+            objects.add(tile);
+            layers.add(CollisionMatrix.TERRAIN_TILES_LAYER);
+        }
+        for (Tree tree : trees) {
+            objects.add(tree.getTrunk());
+            layers.add(CollisionMatrix.SOLIDS_LAYER);
+            if (tree.getCanopy() != null) {
+                objects.add(tree.getCanopy());
+                layers.add(CollisionMatrix.LEAFS_LAYER);
+            }
+            for (GameObject leaf : tree.getLeafs()) {
+                objects.add(leaf);
+                layers.add(CollisionMatrix.LEAFS_LAYER);
+            }
+            for (GameObject fruit : tree.getFruits()) {
+                objects.add(fruit);
+                layers.add(CollisionMatrix.FRUITS_LAYER);
+            }
+        }
+        this.layers = new int[layers.size()];
+        for (int i = 0; i < this.layers.length; i++) {
+            this.layers[i] = layers.get(i);
+        }
+        this.addedCount = 0;
+        this.hidden = false;
+    }
+
+    /**
+     * Returns the index of the chunk containing the given x coordinate.
+     * @param x The x coordinate.
+     * @return The chunk index.
+     */
+    static int indexOf(float x) {
+        return (int) Math.floor(x / WIDTH);
+    }
+
+    /**
+     * Returns the minimal x coordinate of the chunk with the given index.
+     * @param index The chunk index.
+     * @return The minimal x coordinate (inclusive).
+     */
+    static int minXOf(int index) {
+        return index * WIDTH;
+    }
+
+    /**
+     * @return The index of the chunk.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The terrain of the chunk.
+     */
+    TerrainSection getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * @return The trees of the chunk.
+     */
+    List<Tree> getTrees() {
+        return trees;
+    }
+
+    /**
+     * @return The number of game objects of the chunk.
+     */
+    int objectCount() {
+        return objects.size();
+    }
+
+    /**
+     * Returns the game object at the given position in the adding order.
+     * @param i The position.
+     * @return The game object.
+     */
+    GameObject objectAt(int i) {
+        return objects.get(i);
+    }
+
+    /**
+     * Returns the layer of the game object at the given position in the adding order.
+     * @param i The position.
+     * @return The layer.
+     */
+    int layerAt(int i) {
+        return layers[i];
+    }
+
+    /**
+     * @return The number of game objects already added to the game.
+     */
+    int getAddedCount() {
+        return addedCount;
+    }
+
+    /**
+     * Sets the number of game objects already added to the game.
+     * @param addedCount The number of added game objects.
+     */
+    void setAddedCount(int addedCount) {
+        this.addedCount = addedCount;
+    }
+
+    /**
+     * @return Whether every game object of the chunk was added to the game.
+     */
+    boolean isFullyAdded() {
+        return addedCount == objects.size();
+    }
+
+    /**
+     * @return Whether the animated objects of the chunk are suspended, out of view.
+     */
+    boolean isHidden() {
+        return hidden;
+    }
+
+    /**
+     * Sets whether the animated objects of the chunk are suspended, out of view.
+     * @param hidden Whether the animated objects are suspended.
+     */
+    void setHidden(boolean hidden) {
+        this.hidden = hidden;
+    }
+
+    /**
+     * Checks whether the game object at the given position in the adding order is animated, that
+     * is, a leaf or a fruit, which leave the game while the chunk is hidden.
+     * @param i The position.
+     * @return True if the game object is animated.
+     */
+    boolean isAnimatedAt(int i) {
+        return layers[i] == CollisionMatrix.LEAFS_LAYER || layers[i] == CollisionMatrix.FRUITS_LAYER;
+    }
+}
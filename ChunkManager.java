@@ -0,0 +1,484 @@
+package pepse.world;
+
+import pepse.world.trees.Flora;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.FruitRespawnScheduler;
+import pepse.world.trees.Tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The ChunkManager streams the world around the avatar.
+ * It generates fixed-width chunks ahead of the avatar using {@link Terrain#createSection} and
+ * {@link Flora#createInRange}, and removes the chunks left behind from the game, so the number
+ * of live game objects stays flat no matter how far the avatar travels.
+ * The terrain height map of a chunk lives exactly as long as the chunk itself.
+ * <p>
+ * Chunks are generated on the fork-join pool. Only adding their objects to the game happens on
+ * the update thread, at most {@link #MAX_OBJECTS_ADDED_PER_UPDATE} objects per update, so new
+ * chunks arrive ahead of the camera without stalling a frame. A chunk whose generation fails is
+ * requested again up to {@link #MAX_GENERATION_ATTEMPTS} times while it stays in range, and the
+ * failures are counted for the caller to query instead of being reported on every frame.
+ * <p>
+ * The blocks, trunks, leafs and fruits of unloaded chunks are returned to their pools, so walking
+ * back and forth across chunk borders reuses them instead of allocating new ones.
+ */
+public class ChunkManager {
+
+    /**
+     * The maximal number of game objects added to the game in a single update.
+     */
+    public static final int MAX_OBJECTS_ADDED_PER_UPDATE = 64;
+
+    /**
+     * The maximal number of times the generation of a chunk is attempted while it stays in range.
+     */
+    public static final int MAX_GENERATION_ATTEMPTS = 3;
+
+    /*
+     * Horizontal distance around the avatar's spawn point that is kept clear of trees.
+     */
+    private static final int SPAWN_CLEARANCE_X = Avatar.AVATAR_SIZE + Block.SIZE;
+
+    /*
+     * The scene the chunks are added to.
+     */
+    private final Scene scene;
+
+    /*
+     * The terrain generator.
+     */
+    private final Terrain terrain;
+
+    /*
+     * The flora generator.
+     */
+    private final Flora flora;
+
+    /*
+     * The visibility manager animating the loaded chunks in view.
+     */
+    private final VisibilityManager visibilityManager;
+
+    /*
+     * The scheduler respawning the eaten fruits of loaded chunks.
+     */
+    private final FruitRespawnScheduler fruitRespawnScheduler;
+
+    /*
+     * Number of chunks kept loaded on each side of the avatar's chunk.
+     */
+    private final int loadRadius;
+
+    /*
+     * The way the terrain of each chunk is represented.
+     */
+    private final Terrain.Mode terrainMode;
+
+    /*
+     * The executor generating the chunks.
+     */
+    private final Executor executor;
+
+    /*
+     * The loaded chunks, by index, including the ones whose objects are still being added.
+     */
+    private final Map<Integer, Chunk> chunks;
+
+    /*
+     * The indices of the chunks being generated.
+     */
+    private final Set<Integer> pendingChunks;
+
+    /*
+     * The generated chunks waiting to be handed to the update thread.
+     */
+    private final Queue<Chunk> generatedChunks;
+
+    /*
+     * The failed generations waiting to be handed to the update thread.
+     */
+    private final Queue<FailedGeneration> failedChunks;
+
+    /*
+     * The number of failed generation attempts of the chunks in range, by index.
+     */
+    private final Map<Integer, Integer> failedAttempts;
+
+    /*
+     * The number of failed generations since the manager was created.
+     */
+    private int generationFailureCount;
+
+    /*
+     * The cause of the last failed generation, or null if none failed.
+     */
+    private Throwable lastGenerationFailure;
+
+    /*
+     * The loaded chunks whose objects are still being added to the game, in arrival order.
+     */
+    private final ArrayDeque<Chunk> addingChunks;
+
+    /*
+     * The index of the chunk the avatar was in on the last update, or null before the first one.
+     */
+    private Integer centerChunkIndex;
+
+    /**
+     * Constructs a new ChunkManager.
+     *
+     * @param scene The scene the chunks are added to.
+     * @param terrain The terrain generator.
+     * @param flora The flora generator.
+     * @param visibilityManager The visibility manager animating the loaded chunks in view.
+     * @param fruitRespawnScheduler The scheduler respawning the eaten fruits of loaded chunks.
+     * @param viewWidth The width of the visible area, in pixels.
+     * @param terrainMode The way the terrain of each chunk is represented.
+     */
+    public ChunkManager(
+            Scene scene,
+            Terrain terrain,
+            Flora flora,
+            VisibilityManager visibilityManager,
+            FruitRespawnScheduler fruitRespawnScheduler,
+            float viewWidth,
+            Terrain.Mode terrainMode
+    ) {
+        this.scene = scene;
+        this.terrain = terrain;
+        this.flora = flora;
+        this.visibilityManager = visibilityManager;
+        this.fruitRespawnScheduler = fruitRespawnScheduler;
+        this.loadRadius = (int) Math.ceil(viewWidth / 2 / Chunk.WIDTH) + 1;
+        this.terrainMode = terrainMode;
+        this.executor = ForkJoinPool.commonPool();
+        this.chunks = new HashMap<>();
+        this.pendingChunks = new HashSet<>();
+        this.generatedChunks = new ConcurrentLinkedQueue<>();
+        this.failedChunks = new ConcurrentLinkedQueue<>();
+        this.failedAttempts = new HashMap<>();
+        this.generationFailureCount = 0;
+        this.lastGenerationFailure = null;
+        this.addingChunks = new ArrayDeque<>();
+        this.centerChunkIndex = null;
+    }
+
+    /**
+     * Generates and adds every chunk around the given x coordinate right away, on the calling thread.
+     * Meant for the initial world, which must exist before the first frame.
+     *
+     * @param centerX The x coordinate to build the world around, usually the avatar's spawn point.
+     */
+    public void loadAround(float centerX) {
+        int center = Chunk.indexOf(centerX);
+        centerChunkIndex = center;
+        for (int i = center - loadRadius; i <= center + loadRadius; i++) {
+            if (!chunks.containsKey(i) && !pendingChunks.contains(i)) {
+                Chunk chunk = generateChunk(i);
+                chunks.put(i, chunk);
+                addObjects(chunk, chunk.objectCount());
+            }
+        }
+    }
+
+    /**
+     * Streams the world around the given x coordinate: requests the generation of the missing
+     * chunks within the load radius, unloads the chunks outside of it, and adds a bounded batch of
+     * generated objects to the game.
+     *
+     * @param centerX The x coordinate to stream the world around, usually the avatar's.
+     */
+    public void update(float centerX) {
+        int center = Chunk.indexOf(centerX);
+        if (centerChunkIndex == null || centerChunkIndex != center) {
+            centerChunkIndex = center;
+            unloadFarChunks(center);
+            failedAttempts.keySet().removeIf(index -> !isInRange(index, center));
+            requestMissingChunks(center);
+        }
+        receiveGeneratedChunks(center);
+        addPendingObjects();
+    }
+
+    /**
+     * @return The number of failed chunk generations since the manager was created.
+     */
+    public int getGenerationFailureCount() {
+        return generationFailureCount;
+    }
+
+    /**
+     * @return The cause of the last failed chunk generation, or null if none failed.
+     */
+    public Throwable getLastGenerationFailure() {
+        return lastGenerationFailure;
+    }
+
+    /*
+     * Unloads the loaded chunks farther than the load radius from the given chunk.
+     *
+     * @param center The index of the center chunk.
+     */
+    private void unloadFarChunks(int center) {
+        Iterator<Chunk> iterator = chunks.values().iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            if (!isInRange(chunk.getIndex(), center)) {
+                unloadChunk(chunk);
+                iterator.remove();
+            }
+        }
+    }
+
+    /*
+     * Requests the generation of every chunk within the load radius that is neither loaded nor
+     * already being generated, unless its generation failed MAX_GENERATION_ATTEMPTS times. A chunk
+     * whose generation fails is handed back to the update thread, which requests it again.
+     *
+     * @param center The index of the center chunk.
+     */
+    private void requestMissingChunks(int center) {
+        for (int i = center - loadRadius; i <= center + loadRadius; i++) {
+            if (!chunks.containsKey(i)
+                    && failedAttempts.getOrDefault(i, 0) < MAX_GENERATION_ATTEMPTS
+                    && pendingChunks.add(i)) {
+                int index = i;
+                CompletableFuture
+                        .supplyAsync(() -> generateChunk(index), executor)
+                        .whenComplete((chunk, error) -> {
+                            if (error == null) {
+                                generatedChunks.add(chunk);
+                            } else {
+                                failedChunks.add(new FailedGeneration(index, error));
+                            }
+                        });
+            }
+        }
+    }
+
+    /*
+     * Hands the generated chunks over to the update thread, dropping the ones the avatar has
+     * already moved away from, and counts the failed generations before requesting those chunks
+     * again.
+     *
+     * @param center The index of the center chunk.
+     */
+    private void receiveGeneratedChunks(int center) {
+        FailedGeneration failed;
+        boolean retry = false;
+        while ((failed = failedChunks.poll()) != null) {
+            pendingChunks.remove(failed.index);
+            terrain.evictHeightMap(failed.index);
+            failedAttempts.merge(failed.index, 1, Integer::sum);
+            generationFailureCount++;
+            lastGenerationFailure = failed.cause;
+            retry = true;
+        }
+        if (retry) {
+            requestMissingChunks(center);
+        }
+        Chunk chunk;
+        while ((chunk = generatedChunks.poll()) != null) {
+            pendingChunks.remove(chunk.getIndex());
+            if (isInRange(chunk.getIndex(), center)) {
+                chunks.put(chunk.getIndex(), chunk);
+                addingChunks.add(chunk);
+            } else {
+                terrain.evictHeightMap(chunk.getIndex());
+                releaseObjects(chunk);
+            }
+        }
+    }
+
+    /*
+     * Adds up to MAX_OBJECTS_ADDED_PER_UPDATE objects of the chunks waiting to be added.
+     */
+    private void addPendingObjects() {
+        int budget = MAX_OBJECTS_ADDED_PER_UPDATE;
+        while (budget > 0 && !addingChunks.isEmpty()) {
+            Chunk chunk = addingChunks.peek();
+            budget -= addObjects(chunk, budget);
+            if (chunk.isFullyAdded()) {
+                addingChunks.poll();
+            }
+        }
+    }
+
+    /*
+     * Adds the next objects of the given chunk to the game. Its fruits are attached to the respawn
+     * scheduler before any of them shows, and the chunk is handed to the visibility manager once all
+     * of the objects are in.
+     *
+     * @param chunk The chunk.
+     * @param maxCount The maximal number of objects to add.
+     * @return The number of objects added.
+     */
+    private int addObjects(Chunk chunk, int maxCount) {
+        int start = chunk.getAddedCount();
+        if (start == 0) {
+            for (Tree tree : chunk.getTrees()) {
+                for (Fruit fruit : tree.getFruits()) {
+                    fruitRespawnScheduler.attach(fruit);
+                }
+            }
+        }
+        int end = Math.min(chunk.objectCount(), start + maxCount);
+        for (int i = start; i < end; i++) {
+            scene.addGameObject(chunk.objectAt(i), chunk.layerAt(i));
+        }
+        chunk.setAddedCount(end);
+        if (chunk.isFullyAdded()) {
+            visibilityManager.track(chunk);
+        }
+        return end - start;
+    }
+
+    /*
+     * Generates the chunk with the given index. Runs on the generation executor. If the trees fail,
+     * the terrain's colliders are returned to their pool before the failure is passed on.
+     *
+     * @param index The chunk index.
+     * @return The generated chunk.
+     */
+    private Chunk generateChunk(int index) {
+        int minX = Chunk.minXOf(index);
+        int maxX = minX + Chunk.WIDTH;
+        terrain.loadHeightMap(index);
+        TerrainSection section = terrain.createSection(minX, maxX, terrainMode);
+        try {
+            return new Chunk(index, section, createTrees(minX, maxX));
+        } catch (RuntimeException | Error e) {
+            for (Block collider : section.getColliders()) {
+                Block.release(collider);
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Removes the objects of the given chunk from the game. The animated objects of a hidden chunk
+     * are already out of it.
+     *
+     * @param chunk The chunk to unload.
+     */
+    private void unloadChunk(Chunk chunk) {
+        boolean hidden = chunk.isHidden();
+        if (chunk.isFullyAdded()) {
+            visibilityManager.untrack(chunk);
+        } else {
+            addingChunks.remove(chunk);
+        }
+        if (chunk.getAddedCount() > 0) {
+            for (Tree tree : chunk.getTrees()) {
+                for (Fruit fruit : tree.getFruits()) {
+                    fruitRespawnScheduler.detach(fruit);
+                }
+            }
+        }
+        for (int i = 0; i < chunk.getAddedCount(); i++) {
+            if (!hidden || !chunk.isAnimatedAt(i)) {
+                scene.removeGameObject(chunk.objectAt(i), chunk.layerAt(i));
+            }
+        }
+        chunk.setAddedCount(0);
+        chunk.setHidden(false);
+        terrain.evictHeightMap(chunk.getIndex());
+        releaseObjects(chunk);
+    }
+
+    /*
+     * Returns the pooled objects of the given chunk, which is out of the game, to their pools.
+     *
+     * @param chunk The chunk.
+     */
+    private void releaseObjects(Chunk chunk) {
+        for (Block collider : chunk.getTerrain().getColliders()) {
+            Block.release(collider);
+        }
+        for (Tree tree : chunk.getTrees()) {
+            tree.release();
+        }
+    }
+
+    /*
+     * Checks whether the given chunk is within the load radius of the center chunk.
+     *
+     * @param index The chunk index.
+     * @param center The index of the center chunk.
+     * @return True if the chunk should be loaded.
+     */
+    private boolean isInRange(int index, int center) {
+        return Math.abs(index - center) <= loadRadius;
+    }
+
+    /*
+     * Creates the trees in the given range, keeping the avatar's spawn point clear.
+     *
+     * @param minX The minimum x coordinate.
+     * @param maxX The maximum x coordinate.
+     * @return The created trees.
+     */
+    private List<Tree> createTrees(int minX, int maxX) {
+        if (maxX <= -SPAWN_CLEARANCE_X || minX >= SPAWN_CLEARANCE_X) {
+            return flora.createInRange(minX, maxX);
+        }
+        List<Tree> trees = new ArrayList<>();
+        if (minX < -SPAWN_CLEARANCE_X) {
+            trees.addAll(flora.createInRange(minX, -SPAWN_CLEARANCE_X));
+        }
+        if (maxX > SPAWN_CLEARANCE_X) {
+            try {
+                trees.addAll(flora.createInRange(SPAWN_CLEARANCE_X, maxX));
+            } catch (RuntimeException | Error e) {
+                for (Tree tree : trees) {
+                    tree.release();
+                }
+                throw e;
+            }
+        }
+        return trees;
+    }
+
+    /*
+     * A failed chunk generation, handed from the generation executor to the update thread.
+     */
+    private static final class FailedGeneration {
+
+        /*
+         * The index of the chunk.
+         */
+        private final int index;
+
+        /*
+         * The cause of the failure.
+         */
+        private final Throwable cause;
+
+        /*
+         * Constructs a new FailedGeneration.
+         *
+         * @param index The index of the chunk.
+         * @param error The error the generation completed with.
+         */
+        private FailedGeneration(int index, Throwable error) {
+            this.index = index;
+            this.cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+        }
+    }
+}
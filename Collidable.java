@@ -0,0 +1,13 @@
+package pepse.world;
+
+/**
+ * A Collidable game object declares its type id in the {@link CollisionMatrix}.
+ */
+public interface Collidable {
+
+    /**
+     * Returns the type id of the object.
+     * @return One of the type ids of {@link CollisionMatrix}.
+     */
+    int collisionType();
+}
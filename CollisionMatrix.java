@@ -0,0 +1,130 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.collisions.LayerManager;
+
+/**
+ * The CollisionMatrix defines which pepse objects may collide, both per layer and per object type.
+ * Decorative objects live in layers that collide with nothing, so the engine never pairs them,
+ * and the only colliding layer pairs are the avatar's layer against the terrain and trunks layer
+ * and against the fruits layer. Within a pair, objects filter each other by integer type id.
+ */
+public final class CollisionMatrix {
+
+    /**
+     * The type id of the avatar.
+     */
+    public static final int AVATAR = 0;
+
+    /**
+     * The type id of terrain colliders.
+     */
+    public static final int TERRAIN = 1;
+
+    /**
+     * The type id of tree trunks.
+     */
+    public static final int TRUNK = 2;
+
+    /**
+     * The type id of fruits.
+     */
+    public static final int FRUIT = 3;
+
+    /**
+     * The type id of every object that never collides.
+     */
+    public static final int DECORATION = 4;
+
+    /**
+     * The layer of the avatar.
+     */
+    public static final int AVATAR_LAYER = Layer.DEFAULT;
+
+    /**
+     * The layer of the terrain colliders and the tree trunks.
+     */
+    public static final int SOLIDS_LAYER = Layer.STATIC_OBJECTS;
+
+    /**
+     * The layer of the fruits, drawn right behind the avatar.
+     */
+    public static final int FRUITS_LAYER = Layer.DEFAULT - 1;
+
+    /**
+     * The layer of the render-only terrain tiles and baked terrain images, drawn right behind the
+     * terrain colliders and trunks.
+     */
+    public static final int TERRAIN_TILES_LAYER = Layer.STATIC_OBJECTS - 1;
+
+    /**
+     * The layer of the leafs, drawn over the trunks.
+     */
+    public static final int LEAFS_LAYER = Layer.STATIC_OBJECTS + 1;
+
+    /*
+     * Every layer used by pepse.
+     */
+    private static final int[] LAYERS = new int[] {
+            Layer.BACKGROUND,
+            TERRAIN_TILES_LAYER,
+            SOLIDS_LAYER,
+            LEAFS_LAYER,
+            FRUITS_LAYER,
+            AVATAR_LAYER,
+            Layer.FOREGROUND,
+            Layer.UI
+    };
+
+    /*
+     * For each type id, the bit mask of the type ids it collides with.
+     */
+    private static final int[] TYPE_MASKS = new int[] {
+            /* AVATAR */ 1 << TERRAIN | 1 << TRUNK | 1 << FRUIT,
+            /* TERRAIN */ 1 << AVATAR,
+            /* TRUNK */ 1 << AVATAR,
+            /* FRUIT */ 1 << AVATAR,
+            /* DECORATION */ 0
+    };
+
+    /*
+     * Not instantiable.
+     */
+    private CollisionMatrix() {
+    }
+
+    /**
+     * Configures the given layers so that only the avatar's layer collides, with the solids and
+     * fruits layers.
+     * @param layers The layer manager of the game objects collection.
+     */
+    public static void apply(LayerManager layers) {
+        for (int first : LAYERS) {
+            for (int second : LAYERS) {
+                layers.shouldLayersCollide(first, second, false);
+            }
+        }
+        layers.shouldLayersCollide(AVATAR_LAYER, SOLIDS_LAYER, true);
+        layers.shouldLayersCollide(AVATAR_LAYER, FRUITS_LAYER, true);
+    }
+
+    /**
+     * Returns the type id of the given object.
+     * @param gameObject The object.
+     * @return Its type id, or DECORATION if it isn't a {@link Collidable}.
+     */
+    public static int typeOf(GameObject gameObject) {
+        return gameObject instanceof Collidable ? ((Collidable) gameObject).collisionType() : DECORATION;
+    }
+
+    /**
+     * Checks whether objects of the given types may collide.
+     * @param first The type id of the first object.
+     * @param second The type id of the second object.
+     * @return True if they may collide.
+     */
+    public static boolean shouldCollide(int first, int second) {
+        return (TYPE_MASKS[first] & 1 << second) != 0;
+    }
+}
@@ -0,0 +1,175 @@
+package pepse.world.daynight;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * The DayNightClock holds the world time and derives the whole day-night cycle from it: the
+ * position of the sun and its halo, and the darkness of the night. The sun's path is sampled
+ * once up front, so a frame computes the cycle without allocating.
+ * <p>
+ * The clock runs at an adjustable scale of the simulated time and can jump to any time, so a
+ * benchmark or soak test can go through many days without waiting for them. Everything timed by
+ * the day, such as fruit respawns, reads its time from this clock.
+ */
+public class DayNightClock {
+
+    /*
+     * The number of samples of the sun's path over a cycle.
+     */
+    private static final int SUN_PATH_SAMPLES = 3600;
+
+    /*
+     * The opacity of the night at midnight.
+     */
+    private static final float MIDNIGHT_OPACITY = 0.5f;
+
+    /*
+     * The length of a day-night cycle, in seconds.
+     */
+    private final float cycleLength;
+
+    /*
+     * The sun center at each sample of its path, from noon.
+     */
+    private final Vector2[] sunPath;
+
+    /*
+     * The world time, in seconds since the first noon.
+     */
+    private double time;
+
+    /*
+     * The world time elapsed per simulated second.
+     */
+    private float timeScale;
+
+    /*
+     * The sun, or null.
+     */
+    private GameObject sun;
+
+    /*
+     * The sun halo, or null.
+     */
+    private GameObject sunHalo;
+
+    /*
+     * The night, or null.
+     */
+    private GameObject night;
+
+    /**
+     * Constructs a new clock at noon of the first day.
+     *
+     * @param windowDimensions The dimensions of the window the sun travels across.
+     * @param cycleLength The length of a day-night cycle, in seconds.
+     */
+    public DayNightClock(Vector2 windowDimensions, float cycleLength) {
+        this.cycleLength = cycleLength;
+        this.sunPath = Sun.createPath(windowDimensions, SUN_PATH_SAMPLES);
+        this.time = 0;
+        this.timeScale = 1;
+    }
+
+    /**
+     * Sets the day-night objects the clock moves and darkens. Each may be null.
+     *
+     * @param sun The sun.
+     * @param sunHalo The sun halo.
+     * @param night The night.
+     */
+    public void setObjects(GameObject sun, GameObject sunHalo, GameObject night) {
+        this.sun = sun;
+        this.sunHalo = sunHalo;
+        this.night = night;
+    }
+
+    /**
+     * Advances the world time by the given simulated time, at the clock's time scale.
+     *
+     * @param deltaTime The simulated time elapsed, in seconds.
+     */
+    public void advance(float deltaTime) {
+        time += deltaTime * timeScale;
+    }
+
+    /**
+     * Moves the sun and its halo and darkens the night to the current time of day.
+     */
+    public void apply() {
+        if (sun != null) {
+            sun.setCenter(getSunCenter());
+        }
+        if (sunHalo != null) {
+            sunHalo.setCenter(getSunCenter());
+        }
+        if (night != null) {
+            night.renderer().setOpaqueness(getNightOpacity());
+        }
+    }
+
+    /**
+     * @return The world time, in seconds since the first noon.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Jumps to the given world time. Whatever is timed by the clock catches up on its next update.
+     *
+     * @param time The world time, in seconds since the first noon.
+     */
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    /**
+     * @return The world time elapsed per simulated second.
+     */
+    public float getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Sets the world time elapsed per simulated second, 1 being real time.
+     *
+     * @param timeScale The time scale.
+     */
+    public void setTimeScale(float timeScale) {
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * @return The length of a day-night cycle, in seconds.
+     */
+    public float getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * @return How far the current cycle is, from 0 at noon through 0.5 at midnight to 1.
+     */
+    public float getPhase() {
+        double cycles = time / cycleLength;
+        return (float) (cycles - Math.floor(cycles));
+    }
+
+    /**
+     * @return The center of the sun, and of its halo, in camera coordinates. The vector is shared.
+     */
+    public Vector2 getSunCenter() {
+        int sample = (int) (getPhase() * SUN_PATH_SAMPLES);
+        return sunPath[Math.min(sample, SUN_PATH_SAMPLES - 1)];
+    }
+
+    /**
+     * @return The opacity of the night, 0 at noon and the darkest at midnight, easing in and out.
+     */
+    public float getNightOpacity() {
+        float phase = getPhase();
+        float progress = phase <= 0.5f ? 2 * phase : 2 - 2 * phase;
+        return MIDNIGHT_OPACITY * progress * progress * (3 - 2 * progress);
+    }
+}
@@ -0,0 +1,129 @@
+package pepse.util;
+
+/**
+ * A FixedStepClock turns variable frame times into a whole number of fixed simulation steps.
+ * Frame time accumulates, and each frame runs as many steps as fit in it, carrying the remainder
+ * over to the next frame. The remainder, as a fraction of a step, tells how far rendering is
+ * between the last two steps.
+ * <p>
+ * A frame never runs more than a maximal number of steps. Time beyond that is dropped, so a slow
+ * machine simulates slower instead of falling ever further behind.
+ */
+public class FixedStepClock {
+
+    /*
+     * The number of steps per second.
+     */
+    private final int stepsPerSecond;
+
+    /*
+     * The duration of a step, in seconds.
+     */
+    private final float step;
+
+    /*
+     * The maximal number of steps run in a single frame.
+     */
+    private final int maxStepsPerFrame;
+
+    /*
+     * The frame time not yet simulated, less than a step between frames.
+     */
+    private float accumulator;
+
+    /*
+     * The number of steps of the last frame.
+     */
+    private int stepsThisFrame;
+
+    /*
+     * The number of steps since the clock was created.
+     */
+    private long totalSteps;
+
+    /**
+     * Constructs a new clock.
+     * @param stepsPerSecond The simulation rate.
+     * @param maxStepsPerFrame The maximal number of steps run in a single frame.
+     */
+    public FixedStepClock(int stepsPerSecond, int maxStepsPerFrame) {
+        this.stepsPerSecond = stepsPerSecond;
+        this.step = 1f / stepsPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        this.accumulator = 0;
+        this.stepsThisFrame = 0;
+        this.totalSteps = 0;
+    }
+
+    /**
+     * Advances the clock by a frame.
+     * @param deltaTime The time elapsed since the last frame.
+     * @return The number of steps to simulate this frame.
+     */
+    public int advance(float deltaTime) {
+        accumulator += deltaTime;
+        int steps = (int) (accumulator / step);
+        if (steps > maxStepsPerFrame) {
+            steps = maxStepsPerFrame;
+            accumulator = 0;
+        } else {
+            accumulator -= steps * step;
+        }
+        stepsThisFrame = steps;
+        totalSteps += steps;
+        return steps;
+    }
+
+    /**
+     * Overrides the number of steps of the frame the clock was just advanced by, so a replay
+     * simulates its frames in the recorded steps. The accumulated time is kept, so frames still
+     * come at the pace of the frame time.
+     * @param steps The number of steps to simulate this frame instead.
+     */
+    public void overrideSteps(int steps) {
+        totalSteps += steps - stepsThisFrame;
+        stepsThisFrame = steps;
+    }
+
+    /**
+     * @return The number of steps per second.
+     */
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    /**
+     * @return The duration of a step, in seconds.
+     */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * @return The number of steps to simulate this frame.
+     */
+    public int getStepsThisFrame() {
+        return stepsThisFrame;
+    }
+
+    /**
+     * @return How far rendering is from the previous step to the last one, between 0 and 1.
+     */
+    public float getAlpha() {
+        return Math.min(accumulator / step, 1);
+    }
+
+    /**
+     * @return The number of steps since the clock was created.
+     */
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+
+    /**
+     * @return The simulated time since the clock was created, in seconds.
+     */
+    public double getTime() {
+        return totalSteps * (double) step;
+    }
+}
@@ -1,12 +1,13 @@
 package pepse.world.trees;
 
 import danogl.util.Vector2;
+import pepse.util.WorldRandom;
 import pepse.world.Block;
 import pepse.world.Terrain;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * The Flora class is responsible for generating and managing the vegetation in the game world.
@@ -25,9 +26,9 @@ public class Flora {
     private static final int TREE_MAX_HEIGHT_IN_BLOCKS = 10;
 
     /*
-     * random
+     * the world seed every tree is derived from.
      */
-    private final Random random;
+    private final long worldSeed;
 
     /*
      * terrain field.
@@ -35,24 +36,40 @@ public class Flora {
     private final Terrain terrain;
 
     /*
-     * day night cycle length.
+     * the way the foliage of each tree is represented.
      */
-    private final float dayNightCycleLength;
+    private final Tree.Foliage foliage;
 
     /**
-     * Constructs a new Flora object with the specified terrain and day-night cycle length.
+     * Constructs a new Flora object with the specified terrain,
+     * growing trees with a leaf object per foliage cell.
      *
      * @param terrain The terrain object representing the game world's landscape.
-     * @param dayNightCycleLength The length of the day-night cycle in the game world.
+     * @param worldSeed The world seed, the same seed always grows the same trees.
      */
-    public Flora(Terrain terrain, float dayNightCycleLength) {
-        this.random = new Random();
+    public Flora(Terrain terrain, long worldSeed) {
+        this(terrain, worldSeed, Tree.Foliage.LEAFS);
+    }
+
+    /**
+     * Constructs a new Flora object with the specified terrain and foliage representation.
+     *
+     * @param terrain The terrain object representing the game world's landscape.
+     * @param worldSeed The world seed, the same seed always grows the same trees.
+     * @param foliage The way the foliage of each tree is represented.
+     */
+    public Flora(Terrain terrain, long worldSeed, Tree.Foliage foliage) {
+        this.worldSeed = worldSeed;
         this.terrain = terrain;
-        this.dayNightCycleLength = dayNightCycleLength;
+        this.foliage = foliage;
     }
 
     /**
      * Creates trees within the specified range of x-coordinates on the terrain.
+     * Each block column draws from its own stream derived from the world seed, so a column always
+     * grows the same tree, whatever range it is generated as part of.
+     * The generation is recorded as a flight recorder event. If it fails, the trees already created
+     * are returned to their pools.
      *
      * @param minX The minimum x-coordinate for tree generation.
      * @param maxX The maximum x-coordinate for tree generation.
@@ -61,11 +78,35 @@ public class Flora {
     public List<Tree> createInRange(int minX, int maxX) {
         int startX = (minX / Block.SIZE) * Block.SIZE;
         int endX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
+        FloraGenerationEvent event = new FloraGenerationEvent();
+        event.begin();
         List<Tree> trees = new ArrayList<>();
-        for (int i = startX; i < endX; i += Block.SIZE) {
-            if (random.nextFloat() < PLANT_PROBABILITY) {
-                trees.add(createTree(i));
+        try {
+            for (int i = startX; i < endX; i += Block.SIZE) {
+                SplittableRandom random = WorldRandom.forColumn(worldSeed, i / Block.SIZE);
+                if (random.nextDouble() < PLANT_PROBABILITY) {
+                    trees.add(createTree(i, random));
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            for (Tree tree : trees) {
+                tree.release();
+            }
+            throw e;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.minX = minX;
+            event.maxX = maxX;
+            event.treeCount = trees.size();
+            for (Tree tree : trees) {
+                event.leafCount += tree.getLeafs().size();
+                if (tree.getCanopy() != null) {
+                    event.leafCount += tree.getCanopy().leafCount();
+                }
+                event.fruitCount += tree.getFruits().size();
             }
+            event.commit();
         }
         return trees;
     }
@@ -74,9 +115,10 @@ public class Flora {
      * Creates a tree at the specified x-coordinate based on the terrain's ground height.
      *
      * @param x The x-coordinate at which the tree will be created.
+     * @param random The random stream of the tree's column.
      * @return A Tree object representing the generated tree.
      */
-    private Tree createTree(int x){
+    private Tree createTree(int x, SplittableRandom random){
         int groundHeight = ((int) Math.floor(terrain.groundHeightAt(x)) / Block.SIZE) * Block.SIZE;
         int treeMaxHeightInBlocks = Math.min(groundHeight/Block.SIZE, TREE_MAX_HEIGHT_IN_BLOCKS);
         int treeMinHeightInBlocks = Tree.LEAFS_FOLIAGE_SIZE - 1;
@@ -87,7 +129,8 @@ public class Flora {
         return new Tree(
                 new Vector2(x, groundHeight - treeHeight),
                 new Vector2(Block.SIZE, treeHeight),
-                dayNightCycleLength
+                random.split(),
+                foliage
         );
     }
 
@@ -0,0 +1,47 @@
+package pepse.world.trees;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for growing the trees of an x range.
+ */
+@Name("pepse.FloraGeneration")
+@Label("Flora Generation")
+@Category({"Pepse", "World"})
+@Description("Growing the trees of an x range")
+class FloraGenerationEvent extends Event {
+
+    /**
+     * The minimum x coordinate of the range.
+     */
+    @Label("Min X")
+    int minX;
+
+    /**
+     * The maximum x coordinate of the range.
+     */
+    @Label("Max X")
+    int maxX;
+
+    /**
+     * The number of trees grown.
+     */
+    @Label("Trees")
+    int treeCount;
+
+    /**
+     * The number of leafs laid out, as leaf objects or in canopies.
+     */
+    @Label("Leafs")
+    int leafCount;
+
+    /**
+     * The number of fruits grown.
+     */
+    @Label("Fruits")
+    int fruitCount;
+}
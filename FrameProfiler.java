@@ -0,0 +1,245 @@
+package pepse.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The FrameProfiler records how long each phase of a frame takes into a fixed-size histogram per
+ * phase, and writes the p50, p99 and maximal duration of every phase to a CSV file.
+ * <p>
+ * It is off unless the game runs with -Dpepse.profile=true, in which case the CSV file, named by
+ * -Dpepse.profile.file and frame-profile.csv by default, is written when the game exits as well
+ * as on every call to {@link #dump()}. While off, timing a phase is a constant false check the
+ * JIT removes.
+ * <p>
+ * Phases are timed on the update thread only. Some nest: the avatar's update runs within the
+ * engine's, and the HUD's within the avatar's.
+ */
+public final class FrameProfiler {
+
+    /**
+     * A timed phase of a frame.
+     */
+    public enum Phase {
+        /**
+         * The whole time between the starts of two updates, rendering included.
+         */
+        FRAME,
+        /**
+         * The engine's update of every game object, and its collisions.
+         */
+        ENGINE,
+        /**
+         * The avatar's simulation steps.
+         */
+        AVATAR,
+        /**
+         * The energy display.
+         */
+        HUD,
+        /**
+         * Streaming the terrain and trees around the avatar.
+         */
+        TERRAIN,
+        /**
+         * Culling the trees out of view, swaying the leafs and respawning the fruits.
+         */
+        FLORA,
+        /**
+         * Advancing the day-night cycle and placing the sun and the night.
+         */
+        DAY_NIGHT
+    }
+
+    /**
+     * Whether phases are timed, set by the pepse.profile system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("pepse.profile");
+
+    /*
+     * The file the durations are written to.
+     */
+    private static final Path FILE = Paths.get(System.getProperty("pepse.profile.file", "frame-profile.csv"));
+
+    /*
+     * The number of linear sub-buckets each power of two is split into, so a recorded duration is
+     * off by at most 1 / SUB_BUCKETS.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /*
+     * The number of linear sub-buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /*
+     * The highest power of two of a recorded duration in nanoseconds, about 68 seconds, longer
+     * durations are recorded as the longest.
+     */
+    private static final int MAX_EXPONENT = 36;
+
+    /*
+     * The number of buckets of a histogram.
+     */
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    /*
+     * The bucket counts of each phase's histogram, by phase ordinal.
+     */
+    private static final long[][] BUCKETS = new long[Phase.values().length][BUCKET_COUNT];
+
+    /*
+     * The number of recorded durations of each phase.
+     */
+    private static final long[] COUNTS = new long[Phase.values().length];
+
+    /*
+     * The total of the recorded durations of each phase, in nanoseconds.
+     */
+    private static final long[] TOTALS = new long[Phase.values().length];
+
+    /*
+     * The longest recorded duration of each phase, in nanoseconds.
+     */
+    private static final long[] MAXIMUMS = new long[Phase.values().length];
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(FrameProfiler::dump));
+        }
+    }
+
+    /*
+     * Not instantiable.
+     */
+    private FrameProfiler() {
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return The start time to pass to {@link #record}, or 0 if profiling is off.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the duration of a phase since its start.
+     *
+     * @param phase The phase.
+     * @param start The start time returned by {@link #start()}.
+     */
+    public static void record(Phase phase, long start) {
+        if (ENABLED) {
+            recordDuration(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a duration of a phase.
+     *
+     * @param phase The phase.
+     * @param nanos The duration, in nanoseconds.
+     */
+    public static void recordDuration(Phase phase, long nanos) {
+        if (!ENABLED) {
+            return;
+        }
+        int i = phase.ordinal();
+        BUCKETS[i][bucketOf(Math.max(nanos, 0))]++;
+        COUNTS[i]++;
+        TOTALS[i] += nanos;
+        MAXIMUMS[i] = Math.max(MAXIMUMS[i], nanos);
+    }
+
+    /**
+     * Writes the count, mean, p50, p99 and maximal duration of every phase, in microseconds, to the
+     * CSV file. Does nothing if profiling is off.
+     */
+    public static synchronized void dump() {
+        if (!ENABLED) {
+            return;
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(FILE))) {
+            writer.println("phase,count,mean_us,p50_us,p99_us,max_us");
+            for (Phase phase : Phase.values()) {
+                int i = phase.ordinal();
+                long count = COUNTS[i];
+                writer.printf(
+                        "%s,%d,%.1f,%.1f,%.1f,%.1f%n",
+                        phase,
+                        count,
+                        count == 0 ? 0 : TOTALS[i] / 1e3 / count,
+                        percentile(i, 0.5) / 1e3,
+                        percentile(i, 0.99) / 1e3,
+                        MAXIMUMS[i] / 1e3
+                );
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Returns the bucket of a duration: durations below SUB_BUCKETS nanoseconds each have their
+     * own, longer ones share a bucket with the durations of the same power of two and the same
+     * SUB_BUCKET_BITS leading bits.
+     *
+     * @param nanos The non-negative duration, in nanoseconds.
+     * @return The bucket index.
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /*
+     * Returns the longest duration recorded in a bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The duration, in nanoseconds.
+     */
+    private static long bucketLimit(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /*
+     * Returns the duration the given fraction of a phase's recorded durations are at most, to the
+     * histogram's precision, but never above the longest recorded one. Durations past the last
+     * bucket's range report the longest one.
+     *
+     * @param phase The phase ordinal.
+     * @param fraction The fraction, between 0 and 1.
+     * @return The duration, in nanoseconds, or 0 if nothing was recorded.
+     */
+    private static long percentile(int phase, double fraction) {
+        long rank = (long) Math.ceil(fraction * COUNTS[phase]);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += BUCKETS[phase][bucket];
+            if (seen >= rank && seen > 0) {
+                return bucket == BUCKET_COUNT - 1
+                        ? MAXIMUMS[phase]
+                        : Math.min(bucketLimit(bucket), MAXIMUMS[phase]);
+            }
+        }
+        return 0;
+    }
+}
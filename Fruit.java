@@ -2,25 +2,42 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.components.ScheduledTask;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.world.Avatar;
+import pepse.util.ObjectPool;
+import pepse.world.Collidable;
+import pepse.world.CollisionMatrix;
+import pepse.world.PooledGameObject;
 
 /**
  * The Fruit class represents a fruit object in the game world.
- * It extends the GameObject class and includes methods for collision handling and visibility control.
+ * It extends the PooledGameObject class and includes methods for collision handling and visibility control.
  */
-public class Fruit extends GameObject {
+public class Fruit extends PooledGameObject implements Collidable {
     /**
      * fruit tag.
      */
     public static final String FRUIT_TAG = "fruit";
 
     /*
-     * day-night cycle length.
+     * maximal number of idle fruits kept for reuse.
      */
-    private final float dayNightCycleLength;
+    private static final int MAX_IDLE_FRUITS = 512;
+
+    /*
+     * pool of released fruits.
+     */
+    private static final ObjectPool<Fruit> POOL = new ObjectPool<>(MAX_IDLE_FRUITS);
+
+    /*
+     * the key of the fruit's place in the world, identifying its pending respawn.
+     */
+    private long respawnKey;
+
+    /*
+     * the scheduler the fruit respawns through, or null while it is out of the scene.
+     */
+    private FruitRespawnScheduler respawnScheduler;
 
     /**
      * Constructs a new Fruit object with the specified parameters.
@@ -28,17 +45,66 @@ public class Fruit extends GameObject {
      * @param topLeftCorner The position of the top-left corner of the fruit.
      * @param dimensions The dimensions of the fruit.
      * @param renderable The renderable component representing the visual appearance of the fruit.
-     * @param dayNightCycleLength The length of the day-night cycle in the game world.
      */
-    public Fruit(
-            Vector2 topLeftCorner,
-            Vector2 dimensions,
-            Renderable renderable,
-            float dayNightCycleLength
-    ) {
+    public Fruit(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
         super(topLeftCorner, dimensions, renderable);
         setTag(FRUIT_TAG);
-        this.dayNightCycleLength = dayNightCycleLength;
+        this.respawnKey = keyOf(topLeftCorner);
+    }
+
+    /**
+     * Creates a fruit, reusing a released fruit if there is one.
+     *
+     * @param topLeftCorner The position of the top-left corner of the fruit.
+     * @param dimensions The dimensions of the fruit.
+     * @param renderable The renderable component representing the visual appearance of the fruit.
+     * @return The fruit.
+     */
+    public static Fruit create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        Fruit fruit = POOL.acquire();
+        if (fruit == null) {
+            return new Fruit(topLeftCorner, dimensions, renderable);
+        }
+        fruit.reset(topLeftCorner, dimensions, renderable, FRUIT_TAG);
+        fruit.respawnKey = keyOf(topLeftCorner);
+        fruit.respawnScheduler = null;
+        return fruit;
+    }
+
+    /**
+     * Releases a fruit that left the game for reuse.
+     *
+     * @param fruit The fruit, must not be used afterwards.
+     */
+    public static void release(Fruit fruit) {
+        POOL.release(fruit);
+    }
+
+    /**
+     * Returns the pool of released fruits, for its statistics.
+     *
+     * @return The fruit pool.
+     */
+    public static ObjectPool<Fruit> pool() {
+        return POOL;
+    }
+
+    /**
+     * Returns the key of the fruit's place in the world.
+     *
+     * @return The respawn key.
+     */
+    long getRespawnKey() {
+        return respawnKey;
+    }
+
+    /**
+     * Sets the scheduler the fruit respawns through.
+     *
+     * @param respawnScheduler The scheduler, or null while the fruit is out of the scene.
+     */
+    void setRespawnScheduler(FruitRespawnScheduler respawnScheduler) {
+        this.respawnScheduler = respawnScheduler;
     }
 
     /**
@@ -49,11 +115,24 @@ public class Fruit extends GameObject {
      */
     @Override
     public boolean shouldCollideWith(GameObject other) {
-        return other.getTag().equals(Avatar.AVATAR_TAG) && renderer().getOpaqueness() != 0;
+        return CollisionMatrix.shouldCollide(CollisionMatrix.FRUIT, CollisionMatrix.typeOf(other)) &&
+                renderer().getOpaqueness() != 0;
+    }
+
+    /**
+     * Returns the collision type id of the fruit.
+     *
+     * @return {@link CollisionMatrix#FRUIT}.
+     */
+    @Override
+    public int collisionType() {
+        return CollisionMatrix.FRUIT;
     }
 
     /**
      * Handles the action to be performed when a collision occurs with another game object.
+     * The fruit is hidden, recorded as eaten in the flight recorder, and its respawn is handed to
+     * the fruit's respawn scheduler.
      *
      * @param other The game object collided with.
      * @param collision The collision information.
@@ -63,12 +142,25 @@ public class Fruit extends GameObject {
         super.onCollisionEnter(other, collision);
         if (renderer().getOpaqueness() != 0) {
             renderer().setOpaqueness(0);
-            new ScheduledTask(
-                    this,
-                    dayNightCycleLength,
-                    false,
-                    () -> renderer().setOpaqueness(1)
-                    );
+            FruitEatenEvent event = new FruitEatenEvent();
+            if (event.shouldCommit()) {
+                event.x = getCenter().x();
+                event.y = getCenter().y();
+                event.commit();
+            }
+            if (respawnScheduler != null) {
+                respawnScheduler.scheduleRespawn(this);
+            }
         }
     }
+
+    /*
+     * Packs the given top-left corner into a respawn key.
+     *
+     * @param topLeftCorner The top-left corner of the fruit.
+     * @return The respawn key.
+     */
+    private static long keyOf(Vector2 topLeftCorner) {
+        return ((long) (int) topLeftCorner.x() << Integer.SIZE) | ((int) topLeftCorner.y() & 0xFFFFFFFFL);
+    }
 }
@@ -0,0 +1,29 @@
+package pepse.world.trees;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for the avatar eating a fruit.
+ */
+@Name("pepse.FruitEaten")
+@Label("Fruit Eaten")
+@Category({"Pepse", "Fruits"})
+@Description("The avatar eating a fruit")
+class FruitEatenEvent extends Event {
+
+    /**
+     * The x coordinate of the fruit's center.
+     */
+    @Label("X")
+    float x;
+
+    /**
+     * The y coordinate of the fruit's center.
+     */
+    @Label("Y")
+    float y;
+}
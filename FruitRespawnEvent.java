@@ -0,0 +1,41 @@
+package pepse.world.trees;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for an eaten fruit growing back.
+ */
+@Name("pepse.FruitRespawn")
+@Label("Fruit Respawn")
+@Category({"Pepse", "Fruits"})
+@Description("An eaten fruit growing back")
+class FruitRespawnEvent extends Event {
+
+    /**
+     * Whether the fruit's chunk is loaded, the position is only set if it is.
+     */
+    @Label("Loaded")
+    boolean loaded;
+
+    /**
+     * The x coordinate of the fruit's center.
+     */
+    @Label("X")
+    float x;
+
+    /**
+     * The y coordinate of the fruit's center.
+     */
+    @Label("Y")
+    float y;
+
+    /**
+     * The world time past the due time the fruit grew back at, in seconds.
+     */
+    @Label("Lateness")
+    double lateness;
+}
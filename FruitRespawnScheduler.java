@@ -0,0 +1,151 @@
+package pepse.world.trees;
+
+import pepse.world.daynight.DayNightClock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The FruitRespawnScheduler owns every pending fruit respawn in a single queue ordered by world
+ * time, so a frame only costs the respawns that are due. An eaten fruit respawns a day-night cycle
+ * later, timed by the {@link DayNightClock}, so fast-forwarding the clock respawns fruits too.
+ * Pending respawns are keyed by the fruit's place in the world rather than held by the fruit
+ * object, so a fruit can leave the scene and come back, even as a regenerated object, without
+ * losing its pending respawn.
+ */
+public class FruitRespawnScheduler {
+
+    /*
+     * The pending respawns, earliest first.
+     */
+    private final PriorityQueue<PendingRespawn> queue;
+
+    /*
+     * The pending respawns, by fruit key.
+     */
+    private final Map<Long, PendingRespawn> pending;
+
+    /*
+     * The fruits currently in the scene, by fruit key.
+     */
+    private final Map<Long, Fruit> attached;
+
+    /*
+     * The clock timing the respawns.
+     */
+    private final DayNightClock clock;
+
+    /**
+     * Constructs a new scheduler with no pending respawns.
+     *
+     * @param clock The clock timing the respawns.
+     */
+    public FruitRespawnScheduler(DayNightClock clock) {
+        this.queue = new PriorityQueue<>();
+        this.pending = new HashMap<>();
+        this.attached = new HashMap<>();
+        this.clock = clock;
+    }
+
+    /**
+     * Attaches a fruit entering the scene, hiding it if its respawn is still pending.
+     *
+     * @param fruit The fruit.
+     */
+    public void attach(Fruit fruit) {
+        attached.put(fruit.getRespawnKey(), fruit);
+        fruit.setRespawnScheduler(this);
+        fruit.renderer().setOpaqueness(pending.containsKey(fruit.getRespawnKey()) ? 0 : 1);
+    }
+
+    /**
+     * Detaches a fruit leaving the scene. Its pending respawn, if any, stays scheduled.
+     *
+     * @param fruit The fruit.
+     */
+    public void detach(Fruit fruit) {
+        attached.remove(fruit.getRespawnKey(), fruit);
+        fruit.setRespawnScheduler(null);
+    }
+
+    /**
+     * Schedules the respawn of an eaten fruit a day-night cycle from now. Does nothing if its
+     * respawn is already pending.
+     *
+     * @param fruit The fruit.
+     */
+    public void scheduleRespawn(Fruit fruit) {
+        long key = fruit.getRespawnKey();
+        if (pending.containsKey(key)) {
+            return;
+        }
+        PendingRespawn respawn = new PendingRespawn(key, clock.getTime() + clock.getCycleLength());
+        pending.put(key, respawn);
+        queue.add(respawn);
+    }
+
+    /**
+     * @return The number of pending respawns.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Respawns the fruits that are due by the clock's time, each recorded as a flight recorder event.
+     */
+    public void update() {
+        double time = clock.getTime();
+        while (!queue.isEmpty() && queue.peek().dueTime <= time) {
+            PendingRespawn respawn = queue.poll();
+            pending.remove(respawn.key);
+            Fruit fruit = attached.get(respawn.key);
+            if (fruit != null) {
+                fruit.renderer().setOpaqueness(1);
+            }
+            FruitRespawnEvent event = new FruitRespawnEvent();
+            if (event.shouldCommit()) {
+                event.loaded = fruit != null;
+                if (fruit != null) {
+                    event.x = fruit.getCenter().x();
+                    event.y = fruit.getCenter().y();
+                }
+                event.lateness = time - respawn.dueTime;
+                event.commit();
+            }
+        }
+    }
+
+    /*
+     * A pending respawn of the fruit with the given key.
+     */
+    private static class PendingRespawn implements Comparable<PendingRespawn> {
+
+        /*
+         * The key of the fruit.
+         */
+        private final long key;
+
+        /*
+         * The world time the fruit respawns at.
+         */
+        private final double dueTime;
+
+        /*
+         * Constructs a new pending respawn.
+         */
+        private PendingRespawn(long key, double dueTime) {
+            this.key = key;
+            this.dueTime = dueTime;
+        }
+
+        /*
+         * Orders respawns by due time.
+         */
+        @Override
+        public int compareTo(PendingRespawn other) {
+            return Double.compare(dueTime, other.dueTime);
+        }
+    }
+}
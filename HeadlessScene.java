@@ -0,0 +1,77 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A HeadlessScene holds the world's game objects without a window: it updates them every frame,
+ * but neither renders them nor resolves their collisions.
+ */
+public class HeadlessScene implements Scene {
+
+    /*
+     * The game objects, in the order they were added.
+     */
+    private final Set<GameObject> gameObjects;
+
+    /*
+     * The game objects updated on the current frame, reused between frames.
+     */
+    private final List<GameObject> updating;
+
+    /**
+     * Constructs a new, empty HeadlessScene.
+     */
+    public HeadlessScene() {
+        this.gameObjects = new LinkedHashSet<>();
+        this.updating = new ArrayList<>();
+    }
+
+    /**
+     * Adds a game object to the scene. Layers are ignored, nothing is rendered.
+     *
+     * @param gameObject The game object.
+     * @param layer The layer to add it to.
+     */
+    @Override
+    public void addGameObject(GameObject gameObject, int layer) {
+        gameObjects.add(gameObject);
+    }
+
+    /**
+     * Removes a game object from the scene.
+     *
+     * @param gameObject The game object.
+     * @param layer The layer it was added to.
+     * @return True if the game object was in the scene.
+     */
+    @Override
+    public boolean removeGameObject(GameObject gameObject, int layer) {
+        return gameObjects.remove(gameObject);
+    }
+
+    /**
+     * Updates every game object in the scene, as the game's object collection does on every frame.
+     * Objects added or removed meanwhile take effect on the next update.
+     *
+     * @param deltaTime The time elapsed since the last update.
+     */
+    public void update(float deltaTime) {
+        updating.addAll(gameObjects);
+        for (int i = 0; i < updating.size(); i++) {
+            updating.get(i).update(deltaTime);
+        }
+        updating.clear();
+    }
+
+    /**
+     * @return The number of game objects in the scene.
+     */
+    public int objectCount() {
+        return gameObjects.size();
+    }
+}
@@ -0,0 +1,156 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.util.FixedStepClock;
+import pepse.util.FrameProfiler;
+import pepse.util.InputSource;
+import pepse.util.ScriptedInputSource;
+import pepse.util.SpriteAtlas;
+import pepse.world.Avatar;
+import pepse.world.HeadlessScene;
+import pepse.world.Terrain;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Simulates the game's world without a window, as fast as it runs, to measure the simulation
+ * alone. The world is the one the game builds, around an avatar with placeholder frames running
+ * to the right and jumping, driven by a script instead of the keyboard.
+ * <p>
+ * Nothing is rendered and the engine's collisions aren't resolved, so the avatar is kept on the
+ * ground directly and walks through trees without eating their fruits.
+ * With -Dpepse.profile=true the phases of every tick are profiled, as in the game.
+ * Run with the number of ticks and the world seed as optional arguments.
+ */
+public class HeadlessSimulation {
+
+    /*
+     * The number of simulation ticks per second, as in the game.
+     */
+    private static final int SIMULATION_RATE = 60;
+
+    /*
+     * The number of ticks between the avatar's jumps.
+     */
+    private static final int STEPS_BETWEEN_JUMPS = 90;
+
+    /*
+     * The dimensions of the window the world is viewed through.
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+
+    /*
+     * The scene holding the world's game objects.
+     */
+    private final HeadlessScene scene;
+
+    /*
+     * The clock the world is simulated on, a single step per tick.
+     */
+    private final FixedStepClock clock;
+
+    /*
+     * The simulated world.
+     */
+    private final PepseWorld world;
+
+    /*
+     * The view following the avatar, in place of the camera.
+     */
+    private final GameObject view;
+
+    /**
+     * Builds the world of the given seed, ready to be simulated.
+     *
+     * @param worldSeed The world seed.
+     * @param input The source of the avatar's keys.
+     */
+    public HeadlessSimulation(long worldSeed, InputSource input) {
+        this.scene = new HeadlessScene();
+        this.clock = new FixedStepClock(SIMULATION_RATE, 1);
+        Avatar avatar = new Avatar(PepseWorld.spawnPoint(WINDOW_DIMENSIONS), input, placeholderAtlas());
+        this.world = new PepseWorld(scene, WINDOW_DIMENSIONS, worldSeed, avatar, clock);
+        this.view = new GameObject(Vector2.ZERO, WINDOW_DIMENSIONS, null);
+        view.setCenter(avatar.getCenter());
+    }
+
+    /**
+     * Runs the simulation for the given number of ticks and prints the ticks per second.
+     *
+     * @param args Optionally, the number of ticks and the world seed.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long worldSeed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        HeadlessSimulation simulation = new HeadlessSimulation(
+                worldSeed,
+                ScriptedInputSource.runAndJump(InputSource.KEY_RIGHT, STEPS_BETWEEN_JUMPS)
+        );
+        long start = System.nanoTime();
+        simulation.run(ticks);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%d ticks in %.3f s: %.0f ticks/s%n", ticks, nanos / 1e9, ticks / (nanos / 1e9));
+        System.out.printf(
+                "avatar at x = %.0f, %d objects in the scene%n",
+                simulation.world.getAvatar().getCenter().x(),
+                simulation.scene.objectCount()
+        );
+    }
+
+    /**
+     * Runs the given number of ticks, each a single simulation step: the scene's objects are updated,
+     * the avatar is kept on the ground and the world systems run.
+     *
+     * @param ticks The number of ticks.
+     */
+    public void run(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            long start = FrameProfiler.start();
+            clock.advance(clock.getStep());
+            scene.update(clock.getStep());
+            keepOnGround(world.getAvatar(), world.getTerrain());
+            FrameProfiler.record(FrameProfiler.Phase.ENGINE, start);
+            view.setCenter(world.getAvatar().getCenter());
+            world.update(view);
+        }
+    }
+
+    /**
+     * @return The simulated world.
+     */
+    public PepseWorld getWorld() {
+        return world;
+    }
+
+    /*
+     * Stands the avatar on the ground if it reached it, in place of the engine's collisions.
+     *
+     * @param avatar The avatar.
+     * @param terrain The terrain.
+     */
+    private static void keepOnGround(Avatar avatar, Terrain terrain) {
+        float top = terrain.groundHeightAt(avatar.getCenter().x()) - Avatar.AVATAR_SIZE;
+        if (avatar.getTopLeftCorner().y() >= top) {
+            if (avatar.getTopLeftCorner().y() > top) {
+                avatar.setTopLeftCorner(new Vector2(avatar.getTopLeftCorner().x(), top));
+            }
+            avatar.transform().setVelocityY(0);
+            avatar.land();
+        }
+    }
+
+    /*
+     * Creates an atlas of blank frames in place of the avatar's animation, which isn't drawn.
+     *
+     * @return The atlas.
+     */
+    private static SpriteAtlas placeholderAtlas() {
+        BufferedImage[] frames = new BufferedImage[Avatar.ANIMATION_FRAME_COUNT];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        }
+        return SpriteAtlas.pack(frames);
+    }
+}
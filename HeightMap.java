@@ -0,0 +1,44 @@
+package pepse.world;
+
+/**
+ * The ground heights of every block column of one chunk.
+ * Height maps are immutable once computed, so they can be shared freely between threads.
+ */
+class HeightMap {
+
+    /*
+     * The index of the chunk.
+     */
+    private final int chunkIndex;
+
+    /*
+     * The ground height of each block column of the chunk.
+     */
+    private final float[] heights;
+
+    /**
+     * Constructs a new height map.
+     * @param chunkIndex The index of the chunk.
+     * @param heights The ground height of each block column of the chunk.
+     */
+    HeightMap(int chunkIndex, float[] heights) {
+        this.chunkIndex = chunkIndex;
+        this.heights = heights;
+    }
+
+    /**
+     * @return The index of the chunk.
+     */
+    int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * Returns the ground height of the given block column.
+     * @param column The block column, relative to the start of the chunk.
+     * @return The ground height.
+     */
+    float heightAt(int column) {
+        return heights[column];
+    }
+}
@@ -0,0 +1,85 @@
+package pepse.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * The binary format of recorded input sessions, shared by {@link RecordingInputSource} and
+ * {@link ReplayInputSource}.
+ * <p>
+ * A log starts with a header: the magic number, the format version, the world seed and the
+ * simulation rate. Then come the records, each the number of steps since the previous record as
+ * an unsigned varint followed by a byte: either the new key state, or FRAME_STEPS plus the number
+ * of steps the frames take from this step on. The engine resolves collisions once per frame, so a
+ * replay groups its steps into frames as recorded. Frames without a step change nothing and aren't
+ * recorded. Since keys and the frame pacing change rarely compared to the step rate, a session
+ * costs a few bytes per key press or pacing change. A record with the END key state closes the
+ * log, its step delta leading to the last recorded step.
+ */
+final class InputLog {
+
+    /**
+     * The magic number opening every log, "PEPS" in ASCII.
+     */
+    static final int MAGIC = 0x50455053;
+
+    /**
+     * The version of the format.
+     */
+    static final byte VERSION = 2;
+
+    /**
+     * The key state of the record closing a log, outside of any key bit mask.
+     */
+    static final int END = 0x80;
+
+    /**
+     * The base of the records of the frame pacing, to which the number of steps per frame is added.
+     */
+    static final int FRAME_STEPS = 0x80;
+
+    /**
+     * The most steps per frame a record of the frame pacing holds.
+     */
+    static final int MAX_FRAME_STEPS = 0x7F;
+
+    /*
+     * Not instantiable.
+     */
+    private InputLog() {
+    }
+
+    /**
+     * Writes an unsigned varint, seven bits per byte, lowest bits first.
+     * @param out The stream.
+     * @param value The non-negative value.
+     * @throws IOException If writing fails.
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned varint written by {@link #writeVarLong}.
+     * @param in The stream.
+     * @return The value.
+     * @throws IOException If reading fails or the stream ends.
+     */
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed varint in input log");
+    }
+}
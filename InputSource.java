@@ -0,0 +1,31 @@
+package pepse.util;
+
+/**
+ * An InputSource supplies the state of the avatar's keys, once per simulation step.
+ * Key states are bit masks of the KEY_ constants, so a source can come from the keyboard, a
+ * recorded session or a script alike.
+ */
+public interface InputSource {
+
+    /**
+     * The bit of the left key.
+     */
+    int KEY_LEFT = 1;
+
+    /**
+     * The bit of the right key.
+     */
+    int KEY_RIGHT = 1 << 1;
+
+    /**
+     * The bit of the jump key.
+     */
+    int KEY_JUMP = 1 << 2;
+
+    /**
+     * Returns the state of the keys for the next simulation step. Called exactly once per step.
+     *
+     * @return The bit mask of the pressed keys.
+     */
+    int pollKeys();
+}
@@ -1,19 +1,19 @@
 package pepse.world.trees;
 
 import danogl.GameObject;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
 import pepse.world.Block;
+import pepse.world.PooledGameObject;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * The Leaf class represents a leaf object in the game world.
  * It handles the behavior and properties of individual leaf objects.
  */
-public class Leaf extends GameObject {
+public class Leaf extends PooledGameObject {
 
     /*
      * the leaf tag.
@@ -50,10 +50,76 @@ public class Leaf extends GameObject {
      */
     private static final float MAX_DELAY_TIME = 0.7f;
 
+    /**
+     * The narrowest width a leaf sways to.
+     */
+    static final float MIN_SWAY_WIDTH = LEAF_INITIAL_DIMENSION_FACTOR * Block.SIZE;
+
+    /**
+     * The widest width a leaf sways to.
+     */
+    static final float MAX_SWAY_WIDTH = LEAF_FINAL_DIMENSION_FACTOR * Block.SIZE;
+
+    /**
+     * The index of the sway delay among the drawn sway parameters.
+     */
+    static final int SWAY_DELAY = 0;
+
+    /**
+     * The index of the initial sway angle among the drawn sway parameters.
+     */
+    static final int SWAY_INITIAL_ANGLE = 1;
+
+    /**
+     * The index of the initial sway width among the drawn sway parameters.
+     */
+    static final int SWAY_INITIAL_WIDTH = 2;
+
+    /**
+     * The index of the final sway width among the drawn sway parameters.
+     */
+    static final int SWAY_FINAL_WIDTH = 3;
+
+    /**
+     * The index of the sway cycle length among the drawn sway parameters.
+     */
+    static final int SWAY_CYCLE_LENGTH = 4;
+
+    /**
+     * The number of drawn sway parameters.
+     */
+    static final int SWAY_PARAMETER_COUNT = 5;
+
+    /*
+     * The maximal number of idle leafs kept for reuse.
+     */
+    private static final int MAX_IDLE_LEAFS = 2048;
+
+    /*
+     * The pool of released leafs.
+     */
+    private static final ObjectPool<Leaf> POOL = new ObjectPool<>(MAX_IDLE_LEAFS);
+
+    /*
+     * the sway parameters of the leaf, indexed by the SWAY_ constants, drawn anew into the same
+     * array when a pooled leaf is reused.
+     */
+    private final float[] sway = new float[SWAY_PARAMETER_COUNT];
+
     /*
-     * random number.
+     * the sway system the leaf is registered in, or null.
      */
-    private static final Random random = new Random();
+    private LeafSwaySystem swaySystem;
+
+    /*
+     * the slot of the leaf in its sway system.
+     */
+    private int swaySlot = -1;
+
+    /*
+     * the clock time the leaf started swaying at, kept while it is suspended, or NaN.
+     */
+    private double suspendedSwayStartTime = Double.NaN;
 
     /**
      * Constructs a Leaf object with the specified top-left corner, dimensions, and renderable.
@@ -68,25 +134,132 @@ public class Leaf extends GameObject {
     }
 
     /**
-     * Creates a new Leaf object with the specified parameters and schedules its behavior.
+     * Creates a Leaf object with the specified parameters and draws its sway, reusing a released
+     * leaf if there is one. The leaf starts swaying once it is added to a {@link LeafSwaySystem}.
      *
      * @param topLeftCorner   The top-left corner of the leaf object.
      * @param dimensions      The dimensions of the leaf object.
      * @param renderable      The renderable representing the visual aspect of the leaf.
      * @param cycleLength     The length of the cycle for the leaf's behavior.
+     * @param random          The random stream the leaf's animation is derived from.
      * @return                The newly created Leaf object.
      */
     public static Leaf create(
             Vector2 topLeftCorner,
             Vector2 dimensions,
             Renderable renderable,
-            float cycleLength
+            float cycleLength,
+            SplittableRandom random
     ){
-        Leaf leaf = new Leaf(topLeftCorner, dimensions, renderable);
-        createScheduleTask(leaf, cycleLength);
+        Leaf leaf = POOL.acquire();
+        if (leaf == null) {
+            leaf = new Leaf(topLeftCorner, dimensions, renderable);
+        } else {
+            leaf.reset(topLeftCorner, dimensions, renderable, LEAF_TAG);
+        }
+        drawSway(random, cycleLength, leaf.sway);
         return leaf;
     }
 
+    /**
+     * Releases a leaf that left the game, and its sway system, for reuse.
+     *
+     * @param leaf The leaf, must not be used afterwards.
+     */
+    public static void release(Leaf leaf) {
+        leaf.setSway(null, -1);
+        leaf.setSuspendedSwayStartTime(Double.NaN);
+        POOL.release(leaf);
+    }
+
+    /**
+     * Returns the pool of released leafs, for its statistics.
+     *
+     * @return The leaf pool.
+     */
+    public static ObjectPool<Leaf> pool() {
+        return POOL;
+    }
+
+    /**
+     * @return The delay before the leaf starts swaying, in seconds.
+     */
+    float getSwayDelay() {
+        return sway[SWAY_DELAY];
+    }
+
+    /**
+     * @return The angle the leaf sways from, the leaf sways to its negation.
+     */
+    float getSwayInitialAngle() {
+        return sway[SWAY_INITIAL_ANGLE];
+    }
+
+    /**
+     * @return The width the leaf sways from.
+     */
+    float getSwayInitialWidth() {
+        return sway[SWAY_INITIAL_WIDTH];
+    }
+
+    /**
+     * @return The width the leaf sways to.
+     */
+    float getSwayFinalWidth() {
+        return sway[SWAY_FINAL_WIDTH];
+    }
+
+    /**
+     * @return The time a single sway from one side to the other takes, in seconds.
+     */
+    float getSwayCycleLength() {
+        return sway[SWAY_CYCLE_LENGTH];
+    }
+
+    /**
+     * @return The slot of the leaf in its sway system, or -1 if it isn't registered in one.
+     */
+    int getSwaySlot() {
+        return swaySlot;
+    }
+
+    /**
+     * Sets the sway system the leaf is registered in and its slot there.
+     * @param swaySystem The sway system, or null if the leaf isn't registered in one.
+     * @param swaySlot The slot, or -1 if the leaf isn't registered in a sway system.
+     */
+    void setSway(LeafSwaySystem swaySystem, int swaySlot) {
+        this.swaySystem = swaySystem;
+        this.swaySlot = swaySlot;
+    }
+
+    /**
+     * @return The clock time the suspended leaf started swaying at, or NaN if it isn't suspended.
+     */
+    double getSuspendedSwayStartTime() {
+        return suspendedSwayStartTime;
+    }
+
+    /**
+     * Sets the clock time the leaf started swaying at, kept while it is suspended.
+     * @param suspendedSwayStartTime The clock time, or NaN if the leaf isn't suspended.
+     */
+    void setSuspendedSwayStartTime(double suspendedSwayStartTime) {
+        this.suspendedSwayStartTime = suspendedSwayStartTime;
+    }
+
+    /**
+     * Spins the leaf on top of its sway, if it is registered in a sway system.
+     *
+     * @param angle The angle to turn by.
+     * @param duration The duration of the spin, in seconds.
+     */
+    public void spin(float angle, float duration) {
+        if (swaySystem != null) {
+            swaySystem.spin(this, angle, duration);
+        }
+    }
+
     /**
      * Determines whether the leaf should collide with the specified game object.
      *
@@ -98,46 +271,24 @@ public class Leaf extends GameObject {
         return false;
     }
 
-    /*
-     * Creates a scheduled task for the leaf object, controlling its behavior over time.
+    /**
+     * Draws the sway parameters of a leaf, shared by leaf objects and canopies so that both
+     * foliages of a tree sway alike.
      *
-     * @param leaf          The leaf object for which the task is created.
+     * @param random        The random stream the leaf's animation is derived from.
      * @param cycleLength   The length of the cycle for the leaf's behavior.
+     * @param sway          The array the parameters are written to, indexed by the SWAY_ constants.
      */
-    private static void createScheduleTask(Leaf leaf, float cycleLength){
-        float initialAngle = random.nextFloat() * MAX_ANGLE_CHANGE - MAX_ANGLE_CHANGE / 2;
-        float initialDimensionFactor = random.nextFloat() *
+    static void drawSway(SplittableRandom random, float cycleLength, float[] sway){
+        float initialAngle = (float) random.nextDouble() * MAX_ANGLE_CHANGE - MAX_ANGLE_CHANGE / 2;
+        float initialDimensionFactor = (float) random.nextDouble() *
                 (LEAF_FINAL_DIMENSION_FACTOR - LEAF_INITIAL_DIMENSION_FACTOR) + LEAF_INITIAL_DIMENSION_FACTOR;
-        float randomCycleFactor = random.nextFloat() *
+        float randomCycleFactor = (float) random.nextDouble() *
                 (LEAF_MAX_CYCLE_FACTOR - LEAF_MIN_CYCLE_FACTOR) + LEAF_MIN_CYCLE_FACTOR;
-        new ScheduledTask (
-                leaf,
-                random.nextFloat() * MAX_DELAY_TIME,
-                false,
-                () -> {
-                    new Transition<Float>(
-                            leaf,
-                            leaf.renderer()::setRenderableAngle,
-                            initialAngle,
-                            - initialAngle,
-                            Transition.LINEAR_INTERPOLATOR_FLOAT,
-                            cycleLength * randomCycleFactor,
-                            Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                            null
-                    );
-                    new Transition<Float>(
-                            leaf,
-                            (xDimension) -> leaf.setDimensions(
-                                    new Vector2(xDimension, leaf.getDimensions().y())
-                            ),
-                            initialDimensionFactor * Block.SIZE,
-                            (1 + (1 - initialDimensionFactor)) * Block.SIZE,
-                            Transition.LINEAR_INTERPOLATOR_FLOAT,
-                            cycleLength * randomCycleFactor,
-                            Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                            null
-                    );
-                }
-        );
+        sway[SWAY_DELAY] = (float) random.nextDouble() * MAX_DELAY_TIME;
+        sway[SWAY_INITIAL_ANGLE] = initialAngle;
+        sway[SWAY_INITIAL_WIDTH] = initialDimensionFactor * Block.SIZE;
+        sway[SWAY_FINAL_WIDTH] = (1 + (1 - initialDimensionFactor)) * Block.SIZE;
+        sway[SWAY_CYCLE_LENGTH] = cycleLength * randomCycleFactor;
     }
 }
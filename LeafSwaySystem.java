@@ -0,0 +1,412 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.util.Arrays;
+
+/**
+ * The LeafSwaySystem animates the sway of every registered leaf in a single loop per frame.
+ * The sway state of the leafs is kept in parallel primitive arrays, indexed by the slot of each
+ * leaf, instead of in per-leaf transition components, and the sway of a leaf is a function of the
+ * system's clock, so a frame costs one pass over the arrays and allocates nothing.
+ * <p>
+ * Leafs out of view can be suspended, which takes them out of the arrays, and resumed later at
+ * the sway phase they would have reached had they kept swaying.
+ * <p>
+ * The system drives {@link Canopy canopies} on the same clock, each of which sways all the leafs
+ * of a tree crown drawn as a single game object.
+ */
+public class LeafSwaySystem {
+
+    /*
+     * The initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /*
+     * Number of cached leaf dimensions per pixel of width.
+     */
+    private static final int WIDTH_STEPS_PER_PIXEL = 2;
+
+    /*
+     * The leaf dimensions for every quantized width between the narrowest and widest sway, shared
+     * by all leafs so that changing a leaf's width never allocates.
+     */
+    private static final Vector2[] WIDTH_DIMENSIONS = createWidthDimensions();
+
+    /*
+     * The registered leafs, by slot.
+     */
+    private Leaf[] leafs;
+
+    /*
+     * The clock time each leaf starts swaying at.
+     */
+    private double[] startTimes;
+
+    /*
+     * The inverse of the time a single sway of each leaf takes.
+     */
+    private float[] swayRates;
+
+    /*
+     * The angle each leaf sways from, it sways to its negation.
+     */
+    private float[] initialAngles;
+
+    /*
+     * The width each leaf sways from.
+     */
+    private float[] initialWidths;
+
+    /*
+     * The width change of each leaf over a single sway.
+     */
+    private float[] widthChanges;
+
+    /*
+     * The clock time each leaf started its current spin at, or NaN if it isn't spinning.
+     */
+    private double[] spinStartTimes;
+
+    /*
+     * The angle each spinning leaf turns by over its spin.
+     */
+    private float[] spinAngles;
+
+    /*
+     * The inverse of the duration of the current spin of each leaf.
+     */
+    private float[] spinRates;
+
+    /*
+     * The index in WIDTH_DIMENSIONS of the width each leaf currently has, or -1 before it sways.
+     */
+    private int[] widthIndices;
+
+    /*
+     * The number of registered leafs.
+     */
+    private int size;
+
+    /*
+     * The registered canopies, by slot.
+     */
+    private Canopy[] canopies;
+
+    /*
+     * The number of registered canopies.
+     */
+    private int canopyCount;
+
+    /*
+     * The clock of the system, in seconds.
+     */
+    private double time;
+
+    /**
+     * Constructs a new, empty LeafSwaySystem.
+     */
+    public LeafSwaySystem() {
+        this.leafs = new Leaf[INITIAL_CAPACITY];
+        this.startTimes = new double[INITIAL_CAPACITY];
+        this.swayRates = new float[INITIAL_CAPACITY];
+        this.initialAngles = new float[INITIAL_CAPACITY];
+        this.initialWidths = new float[INITIAL_CAPACITY];
+        this.widthChanges = new float[INITIAL_CAPACITY];
+        this.widthIndices = new int[INITIAL_CAPACITY];
+        this.spinStartTimes = new double[INITIAL_CAPACITY];
+        this.spinAngles = new float[INITIAL_CAPACITY];
+        this.spinRates = new float[INITIAL_CAPACITY];
+        this.size = 0;
+        this.canopies = new Canopy[INITIAL_CAPACITY];
+        this.canopyCount = 0;
+        this.time = 0;
+    }
+
+    /**
+     * Registers a leaf, which starts swaying after its delay.
+     *
+     * @param leaf The leaf.
+     */
+    public void add(Leaf leaf) {
+        if (leaf.getSwaySlot() != -1) {
+            return;
+        }
+        if (size == leafs.length) {
+            grow();
+        }
+        int slot = size++;
+        leafs[slot] = leaf;
+        startTimes[slot] = time + leaf.getSwayDelay();
+        swayRates[slot] = 1 / leaf.getSwayCycleLength();
+        initialAngles[slot] = leaf.getSwayInitialAngle();
+        initialWidths[slot] = leaf.getSwayInitialWidth();
+        widthChanges[slot] = leaf.getSwayFinalWidth() - leaf.getSwayInitialWidth();
+        widthIndices[slot] = -1;
+        spinStartTimes[slot] = Double.NaN;
+        leaf.setSway(this, slot);
+    }
+
+    /**
+     * Suspends a registered leaf in constant time, keeping its sway start time so that
+     * {@link #resume} puts it back in phase. A spin in progress is dropped.
+     *
+     * @param leaf The leaf.
+     */
+    public void suspend(Leaf leaf) {
+        int slot = leaf.getSwaySlot();
+        if (slot == -1) {
+            return;
+        }
+        double startTime = startTimes[slot];
+        remove(leaf);
+        leaf.setSuspendedSwayStartTime(startTime);
+    }
+
+    /**
+     * Registers a suspended leaf again, at the sway phase it would have reached had it kept
+     * swaying. A leaf that wasn't suspended is registered as by {@link #add}.
+     *
+     * @param leaf The leaf.
+     */
+    public void resume(Leaf leaf) {
+        double startTime = leaf.getSuspendedSwayStartTime();
+        add(leaf);
+        if (!Double.isNaN(startTime)) {
+            startTimes[leaf.getSwaySlot()] = startTime;
+            leaf.setSuspendedSwayStartTime(Double.NaN);
+        }
+    }
+
+    /**
+     * Unregisters a leaf in constant time, the leaf stops swaying where it is.
+     *
+     * @param leaf The leaf.
+     */
+    public void remove(Leaf leaf) {
+        int slot = leaf.getSwaySlot();
+        if (slot == -1) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            leafs[slot] = leafs[last];
+            startTimes[slot] = startTimes[last];
+            swayRates[slot] = swayRates[last];
+            initialAngles[slot] = initialAngles[last];
+            initialWidths[slot] = initialWidths[last];
+            widthChanges[slot] = widthChanges[last];
+            widthIndices[slot] = widthIndices[last];
+            spinStartTimes[slot] = spinStartTimes[last];
+            spinAngles[slot] = spinAngles[last];
+            spinRates[slot] = spinRates[last];
+            leafs[slot].setSway(this, slot);
+        }
+        leafs[last] = null;
+        leaf.setSway(null, -1);
+    }
+
+    /**
+     * Spins a registered leaf on top of its sway, restarting any spin in progress.
+     * The leaf turns linearly by the given angle over the given duration and then returns to
+     * its plain sway.
+     *
+     * @param leaf The leaf.
+     * @param angle The angle to turn by.
+     * @param duration The duration of the spin, in seconds.
+     */
+    public void spin(Leaf leaf, float angle, float duration) {
+        int slot = leaf.getSwaySlot();
+        if (slot == -1) {
+            return;
+        }
+        spinStartTimes[slot] = time;
+        spinAngles[slot] = angle;
+        spinRates[slot] = 1 / duration;
+    }
+
+    /**
+     * @return The number of registered leafs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Registers a canopy, whose leafs start swaying after their delays.
+     *
+     * @param canopy The canopy.
+     */
+    public void add(Canopy canopy) {
+        if (canopy.getSwaySlot() != -1) {
+            return;
+        }
+        if (canopyCount == canopies.length) {
+            canopies = Arrays.copyOf(canopies, canopies.length * 2);
+        }
+        int slot = canopyCount++;
+        canopies[slot] = canopy;
+        canopy.setSwayStartTime(time);
+        canopy.setSway(this, slot);
+    }
+
+    /**
+     * Unregisters a canopy in constant time, its leafs stop swaying where they are.
+     *
+     * @param canopy The canopy.
+     */
+    public void remove(Canopy canopy) {
+        suspend(canopy);
+        canopy.setSwayStartTime(Double.NaN);
+    }
+
+    /**
+     * Suspends a registered canopy in constant time, keeping its sway start time so that
+     * {@link #resume(Canopy)} puts its leafs back in phase.
+     *
+     * @param canopy The canopy.
+     */
+    public void suspend(Canopy canopy) {
+        int slot = canopy.getSwaySlot();
+        if (slot == -1) {
+            return;
+        }
+        int last = --canopyCount;
+        if (slot != last) {
+            canopies[slot] = canopies[last];
+            canopies[slot].setSway(this, slot);
+        }
+        canopies[last] = null;
+        canopy.setSway(null, -1);
+    }
+
+    /**
+     * Registers a suspended canopy again, its leafs at the sway phase they would have reached had
+     * they kept swaying. A canopy that wasn't suspended is registered as by {@link #add(Canopy)}.
+     *
+     * @param canopy The canopy.
+     */
+    public void resume(Canopy canopy) {
+        double startTime = canopy.getSwayStartTime();
+        add(canopy);
+        if (!Double.isNaN(startTime)) {
+            canopy.setSwayStartTime(startTime);
+        }
+    }
+
+    /**
+     * Spins every leaf of a registered canopy on top of its sway, restarting any spin in progress.
+     *
+     * @param canopy The canopy.
+     * @param angle The angle to turn by.
+     * @param duration The duration of the spin, in seconds.
+     */
+    public void spin(Canopy canopy, float angle, float duration) {
+        if (canopy.getSwaySlot() != -1) {
+            canopy.startSpin(time, angle, duration);
+        }
+    }
+
+    /**
+     * @return The number of registered canopies.
+     */
+    public int canopyCount() {
+        return canopyCount;
+    }
+
+    /**
+     * Advances the clock and sways every registered leaf and canopy.
+     * Each leaf swings linearly from its initial angle and width to the opposite ones and back,
+     * and spinning leafs add their spin to the angle.
+     *
+     * @param deltaTime The time elapsed since the last update.
+     */
+    public void update(float deltaTime) {
+        time += deltaTime;
+        for (int i = 0; i < size; i++) {
+            float spin = spinOf(i);
+            float elapsed = (float) (time - startTimes[i]);
+            if (elapsed < 0) {
+                if (spin != 0) {
+                    leafs[i].renderer().setRenderableAngle(spin);
+                }
+                continue;
+            }
+            float phase = (elapsed * swayRates[i]) % 2;
+            float progress = phase <= 1 ? phase : 2 - phase;
+            Leaf leaf = leafs[i];
+            leaf.renderer().setRenderableAngle(initialAngles[i] * (1 - 2 * progress) + spin);
+            int widthIndex = widthIndexOf(initialWidths[i] + widthChanges[i] * progress);
+            if (widthIndex != widthIndices[i]) {
+                widthIndices[i] = widthIndex;
+                leaf.setDimensions(WIDTH_DIMENSIONS[widthIndex]);
+            }
+        }
+        for (int i = 0; i < canopyCount; i++) {
+            canopies[i].sway(time);
+        }
+    }
+
+    /*
+     * Returns the current spin angle of the leaf in the given slot, ending finished spins.
+     *
+     * @param slot The slot of the leaf.
+     * @return The angle to add to the leaf's sway.
+     */
+    private float spinOf(int slot) {
+        double spinStartTime = spinStartTimes[slot];
+        if (Double.isNaN(spinStartTime)) {
+            return 0;
+        }
+        float progress = (float) (time - spinStartTime) * spinRates[slot];
+        if (progress >= 1) {
+            spinStartTimes[slot] = Double.NaN;
+            return 0;
+        }
+        return spinAngles[slot] * progress;
+    }
+
+    /*
+     * Doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = leafs.length * 2;
+        leafs = Arrays.copyOf(leafs, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        swayRates = Arrays.copyOf(swayRates, capacity);
+        initialAngles = Arrays.copyOf(initialAngles, capacity);
+        initialWidths = Arrays.copyOf(initialWidths, capacity);
+        widthChanges = Arrays.copyOf(widthChanges, capacity);
+        widthIndices = Arrays.copyOf(widthIndices, capacity);
+        spinStartTimes = Arrays.copyOf(spinStartTimes, capacity);
+        spinAngles = Arrays.copyOf(spinAngles, capacity);
+        spinRates = Arrays.copyOf(spinRates, capacity);
+    }
+
+    /*
+     * Returns the index in WIDTH_DIMENSIONS of the given width.
+     *
+     * @param width The width, between the narrowest and widest sway.
+     * @return The index of the closest cached width.
+     */
+    private static int widthIndexOf(float width) {
+        int index = Math.round((width - Leaf.MIN_SWAY_WIDTH) * WIDTH_STEPS_PER_PIXEL);
+        return Math.max(0, Math.min(index, WIDTH_DIMENSIONS.length - 1));
+    }
+
+    /*
+     * Creates the cached leaf dimensions.
+     *
+     * @return The dimensions for every quantized sway width.
+     */
+    private static Vector2[] createWidthDimensions() {
+        int count = Math.round((Leaf.MAX_SWAY_WIDTH - Leaf.MIN_SWAY_WIDTH) * WIDTH_STEPS_PER_PIXEL) + 1;
+        Vector2[] dimensions = new Vector2[count];
+        for (int i = 0; i < count; i++) {
+            dimensions[i] = new Vector2(Leaf.MIN_SWAY_WIDTH + (float) i / WIDTH_STEPS_PER_PIXEL, Block.SIZE);
+        }
+        return dimensions;
+    }
+}
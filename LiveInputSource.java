@@ -0,0 +1,43 @@
+package pepse.util;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * A LiveInputSource reads the avatar's keys from the keyboard.
+ */
+public class LiveInputSource implements InputSource {
+
+    /*
+     * The user input listener.
+     */
+    private final UserInputListener inputListener;
+
+    /**
+     * Constructs a new LiveInputSource.
+     * @param inputListener The user input listener.
+     */
+    public LiveInputSource(UserInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * Returns the keys currently pressed on the keyboard.
+     * @return The bit mask of the pressed keys.
+     */
+    @Override
+    public int pollKeys() {
+        int keys = 0;
+        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            keys |= KEY_LEFT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            keys |= KEY_RIGHT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_SPACE)) {
+            keys |= KEY_JUMP;
+        }
+        return keys;
+    }
+}
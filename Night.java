@@ -5,7 +5,6 @@ import danogl.GameObject;
 import danogl.components.CoordinateSpace;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import danogl.components.Transition;
 
 import java.awt.*;
 
@@ -24,11 +23,6 @@ public class Night extends GameObject{
      */
     private static final float DAY_OPACITY = 0f;
 
-    /*
-     * The opacity of the night.
-     */
-    private static final float MIDNIGHT_OPACITY = 0.5f;
-
     /**
      * Construct a new GameObject instance.
      *
@@ -43,12 +37,11 @@ public class Night extends GameObject{
     }
 
     /**
-     * Create a new night object with a transition from day to night.
+     * Create a new night object, darkened and lightened by a {@link DayNightClock}.
      * @param windowDimension The window dimensions.
-     * @param cycleLength The cycle length.
      * @return The night object.
      */
-    public static GameObject create(Vector2 windowDimension, float cycleLength) {
+    public static GameObject create(Vector2 windowDimension) {
         GameObject night = new Night(
                 new Vector2(0, 0),
                 windowDimension,
@@ -56,18 +49,7 @@ public class Night extends GameObject{
         );
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         night.setTag(NIGHT_TAG);
-
-        new Transition<Float>(
-                night,
-                night.renderer()::setOpaqueness,
-                DAY_OPACITY,
-                MIDNIGHT_OPACITY,
-                Transition.CUBIC_INTERPOLATOR_FLOAT,
-                cycleLength / 2,
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                null
-        );
-
+        night.renderer().setOpaqueness(DAY_OPACITY);
         return night;
     }
 }
@@ -0,0 +1,136 @@
+package pepse.util;
+
+import java.util.ArrayDeque;
+
+/**
+ * An ObjectPool keeps released objects for reuse, up to a maximal number of idle objects.
+ * A pool only stores objects, resetting a reused object is up to the factory acquiring it.
+ * Pools are safe to use from several threads, and keep statistics of their use.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+public class ObjectPool<T> {
+
+    /*
+     * The released objects waiting for reuse.
+     */
+    private final ArrayDeque<T> idle;
+
+    /*
+     * The maximal number of idle objects kept.
+     */
+    private final int maxIdle;
+
+    /*
+     * The number of acquisitions served by an idle object.
+     */
+    private long hits;
+
+    /*
+     * The number of acquisitions that found no idle object.
+     */
+    private long misses;
+
+    /*
+     * The number of acquired objects not released yet.
+     */
+    private int inUse;
+
+    /*
+     * The highest number of objects in use at once.
+     */
+    private int highWaterMark;
+
+    /**
+     * Constructs a new, empty pool.
+     * @param maxIdle The maximal number of idle objects kept, the extra released objects are dropped.
+     */
+    public ObjectPool(int maxIdle) {
+        this.idle = new ArrayDeque<>();
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Takes an idle object out of the pool. On a miss, the caller is expected to allocate a new
+     * object, which counts as in use.
+     * @return An idle object, or null if there is none.
+     */
+    public synchronized T acquire() {
+        T object = idle.poll();
+        if (object == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        inUse++;
+        highWaterMark = Math.max(highWaterMark, inUse);
+        return object;
+    }
+
+    /**
+     * Gives up an idle object just acquired that doesn't fit the caller, dropping it from the pool.
+     * The acquisition counts as a miss, and the new object the caller allocates in its place as in
+     * use.
+     * @param object The acquired object.
+     */
+    public synchronized void discard(T object) {
+        hits--;
+        misses++;
+    }
+
+    /**
+     * Returns an object to the pool. The object must not be used by the caller afterwards.
+     * @param object The object.
+     */
+    public synchronized void release(T object) {
+        inUse = Math.max(inUse - 1, 0);
+        if (idle.size() < maxIdle) {
+            idle.push(object);
+        }
+    }
+
+    /**
+     * @return The number of acquisitions served by an idle object.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of acquisitions that found no idle object.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of acquired objects not released yet.
+     */
+    public synchronized int getInUse() {
+        return inUse;
+    }
+
+    /**
+     * @return The highest number of objects in use at once.
+     */
+    public synchronized int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * @return The number of idle objects.
+     */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Returns a one-line summary of the pool statistics.
+     * @return The summary.
+     */
+    @Override
+    public synchronized String toString() {
+        return "hits=" + hits + " misses=" + misses + " inUse=" + inUse +
+                " highWaterMark=" + highWaterMark + " idle=" + idle.size();
+    }
+}
@@ -0,0 +1,41 @@
+package pepse.world;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for notifying the observers around the avatar of a jump.
+ */
+@Name("pepse.ObserverNotify")
+@Label("Observer Notify")
+@Category({"Pepse", "World"})
+@Description("Notifying the trees around the avatar of a jump")
+class ObserverNotifyEvent extends Event {
+
+    /**
+     * The x coordinate the observers were notified around.
+     */
+    @Label("X")
+    float x;
+
+    /**
+     * The maximal distance of a notified observer.
+     */
+    @Label("Radius")
+    float radius;
+
+    /**
+     * The number of notified observers.
+     */
+    @Label("Notified")
+    int notifiedCount;
+
+    /**
+     * The number of registered observers.
+     */
+    @Label("Registered")
+    int registeredCount;
+}
@@ -0,0 +1,116 @@
+package pepse.util;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+/**
+ * An OffsetRenderable draws another renderable shifted by an offset from its game object, without
+ * moving the game object itself. It lets an object be rendered between two simulation steps while
+ * collisions keep using its simulated position.
+ * <p>
+ * The drawn renderable is advanced by its owner, through {@link #advance}, rather than by every
+ * update of the game object, which may run several times per frame or not at all.
+ */
+public class OffsetRenderable implements Renderable {
+
+    /*
+     * The renderable drawn.
+     */
+    private Renderable renderable;
+
+    /*
+     * The offset the renderable is drawn at.
+     */
+    private float offsetX, offsetY;
+
+    /**
+     * Constructs a new OffsetRenderable drawing the given renderable at no offset.
+     * @param renderable The renderable drawn.
+     */
+    public OffsetRenderable(Renderable renderable) {
+        this.renderable = renderable;
+    }
+
+    /**
+     * Sets the renderable drawn.
+     * @param renderable The renderable.
+     */
+    public void setRenderable(Renderable renderable) {
+        this.renderable = renderable;
+    }
+
+    /**
+     * Sets the offset the renderable is drawn at.
+     * @param offsetX The horizontal offset.
+     * @param offsetY The vertical offset.
+     */
+    public void setOffset(float offsetX, float offsetY) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+    }
+
+    /**
+     * @return The horizontal offset the renderable is drawn at.
+     */
+    public float getOffsetX() {
+        return offsetX;
+    }
+
+    /**
+     * @return The vertical offset the renderable is drawn at.
+     */
+    public float getOffsetY() {
+        return offsetY;
+    }
+
+    /**
+     * Renders the renderable at the offset.
+     * @param g The graphics to draw with.
+     * @param topLeftCorner The top-left corner of the game object on screen.
+     * @param dimensions The dimensions of the game object.
+     * @param degreesCounterClockwise The angle of the game object.
+     * @param isFlippedHorizontally Whether the game object is flipped horizontally.
+     * @param isFlippedVertically Whether the game object is flipped vertically.
+     * @param opaqueness The opaqueness of the game object.
+     */
+    @Override
+    public void render(
+            Graphics2D g,
+            Vector2 topLeftCorner,
+            Vector2 dimensions,
+            double degreesCounterClockwise,
+            boolean isFlippedHorizontally,
+            boolean isFlippedVertically,
+            double opaqueness
+    ) {
+        g.translate(offsetX, offsetY);
+        renderable.render(
+                g,
+                topLeftCorner,
+                dimensions,
+                degreesCounterClockwise,
+                isFlippedHorizontally,
+                isFlippedVertically,
+                opaqueness
+        );
+        g.translate(-offsetX, -offsetY);
+    }
+
+    /**
+     * Does nothing, the drawn renderable is advanced by {@link #advance}.
+     * @param deltaTime The time elapsed since the last update.
+     */
+    @Override
+    public void update(float deltaTime) {
+    }
+
+    /**
+     * Advances the renderable drawn, for animated renderables. Called once per frame.
+     * @param deltaTime The time elapsed since the last frame.
+     */
+    public void advance(float deltaTime) {
+        renderable.update(deltaTime);
+    }
+}
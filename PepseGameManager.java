@@ -7,21 +7,29 @@ import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
+import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
+import pepse.util.FixedStepClock;
+import pepse.util.FrameProfiler;
+import pepse.util.InputSource;
+import pepse.util.LiveInputSource;
+import pepse.util.RecordingInputSource;
+import pepse.util.ReplayInputSource;
 import pepse.world.Avatar;
-import pepse.world.Block;
+import pepse.world.CollisionMatrix;
+import pepse.world.Scene;
 import pepse.world.Sky;
-import pepse.world.Terrain;
-import pepse.world.daynight.Night;
-import pepse.world.daynight.Sun;
-import pepse.world.daynight.SunHalo;
-import pepse.world.trees.Flora;
-import pepse.world.trees.Tree;
-
-import java.util.HashMap;
-import java.util.List;
+import pepse.world.daynight.DayNightClock;
+
+import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Random;
-import java.util.function.Supplier;
 
 /**
  * The main class of the game, responsible for initializing and running the game.
@@ -30,30 +38,152 @@ public class
 PepseGameManager extends GameManager {
 
     /*
-     * The length of the day-night cycle.
+     * The height of the camera center, as a factor of the window height.
+     */
+    private static final float CAMERA_CENTER_HEIGHT_FACTOR = 0.5f;
+
+    /*
+     * The number of simulation steps per second, gameplay runs the same at any rate.
+     */
+    private static final int SIMULATION_RATE = 60;
+
+    /*
+     * The maximal number of simulation steps per frame, beyond which the simulation slows down.
+     */
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    /*
+     * The command-line option recording the session's input.
+     */
+    private static final String RECORD_OPTION = "--record";
+
+    /*
+     * The command-line option replaying a recorded session.
      */
-    private static final int DAY_NIGHT_CYCLE_LENGTH = 30;
+    private static final String REPLAY_OPTION = "--replay";
 
+    /*
+     * The key writing the frame profile, when profiling is on.
+     */
+    private static final int DUMP_PROFILE_KEY = KeyEvent.VK_F9;
+
+
+    /*
+     * The world seed, the whole world is derived from it.
+     */
+    private final long worldSeed;
+
+    /*
+     * The clock the avatar and the world are simulated on.
+     */
+    private final FixedStepClock clock;
+
+    /*
+     * The file the session's input is recorded to, or null.
+     */
+    private final Path recordingPath;
 
     /*
-     * The seed for the random number generator.
+     * The recorded session replayed instead of the keyboard, or null.
      */
-    private final Random random;
+    private final ReplayInputSource replay;
+
+    /*
+     * The recording of the session's input, or null if it isn't recorded.
+     */
+    private RecordingInputSource recording;
+
+    /*
+     * The world, built when the game is initialized.
+     */
+    private PepseWorld world;
+
+    /*
+     * The user input listener.
+     */
+    private UserInputListener inputListener;
+
+    /*
+     * The time the last update started at, for the frame profile, or 0 before the first update.
+     */
+    private long lastUpdateStart;
+
     /**
-     * Constructs a new PepseGameManager object.
+     * Constructs a new PepseGameManager object with a random world seed.
      */
     public PepseGameManager() {
+        this(new Random().nextLong());
+    }
+
+    /**
+     * Constructs a new PepseGameManager object generating the world of the given seed.
+     *
+     * @param worldSeed The world seed.
+     */
+    public PepseGameManager(long worldSeed) {
+        this(worldSeed, SIMULATION_RATE, null, null);
+    }
+
+    /*
+     * Constructs a new PepseGameManager object.
+     *
+     * @param worldSeed The world seed.
+     * @param simulationRate The number of simulation steps per second.
+     * @param recordingPath The file the session's input is recorded to, or null.
+     * @param replay The recorded session replayed instead of the keyboard, or null.
+     */
+    private PepseGameManager(long worldSeed, int simulationRate, Path recordingPath, ReplayInputSource replay) {
         super();
-        this.random = new Random();
+        this.worldSeed = worldSeed;
+        this.clock = new FixedStepClock(simulationRate, MAX_STEPS_PER_FRAME);
+        this.recordingPath = recordingPath;
+        this.replay = replay;
+    }
+
+    /**
+     * Creates a game generating the world of the given seed, and recording the keys pressed on
+     * every simulation step to the given file.
+     *
+     * @param worldSeed The world seed.
+     * @param recordingPath The file the session's input is recorded to.
+     * @return The game.
+     */
+    public static PepseGameManager recording(long worldSeed, Path recordingPath) {
+        return new PepseGameManager(worldSeed, SIMULATION_RATE, recordingPath, null);
+    }
+
+    /**
+     * Creates a game replaying a recorded session: the same world, simulation rate and keys.
+     *
+     * @param recordingPath The file the session was recorded to.
+     * @return The game.
+     * @throws IOException If the recording can't be read.
+     */
+    public static PepseGameManager replaying(Path recordingPath) throws IOException {
+        ReplayInputSource replay = ReplayInputSource.open(
+                new BufferedInputStream(Files.newInputStream(recordingPath))
+        );
+        return new PepseGameManager(replay.getWorldSeed(), replay.getStepsPerSecond(), null, replay);
     }
 
     /**
      * The main entry point for the game.
      *
-     * @param args Command-line arguments.
+     * @param args Command-line arguments: an optional world seed, "--record FILE [SEED]" to record
+     *             the session or "--replay FILE" to replay a recorded one.
+     * @throws IOException If the recording to replay can't be read.
      */
-    public static void main(String[] args) {
-        new PepseGameManager().run();
+    public static void main(String[] args) throws IOException {
+        if (args.length > 1 && args[0].equals(RECORD_OPTION)) {
+            long worldSeed = args.length > 2 ? Long.parseLong(args[2]) : new Random().nextLong();
+            recording(worldSeed, Paths.get(args[1])).run();
+        } else if (args.length > 1 && args[0].equals(REPLAY_OPTION)) {
+            replaying(Paths.get(args[1])).run();
+        } else if (args.length > 0) {
+            new PepseGameManager(Long.parseLong(args[0])).run();
+        } else {
+            new PepseGameManager().run();
+        }
     }
 
     /**
@@ -72,62 +202,122 @@ PepseGameManager extends GameManager {
             WindowController windowController
     ) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
+        this.inputListener = inputListener;
+        CollisionMatrix.apply(gameObjects().layers());
+        Sky.preloadAssets();
+        Avatar.preloadAssets();
 
         // create sky
-        GameObject sky = Sky.create(windowController.getWindowDimensions(), imageReader);
+        GameObject sky = Sky.create(windowController.getWindowDimensions());
         gameObjects().addGameObject(sky, Layer.BACKGROUND);
 
-        // create terrain
-        Terrain terrain = new Terrain(windowController.getWindowDimensions(), random.nextInt());
-        List<Block> blocks = terrain.createInRange(
-                0,
-                (int) windowController.getWindowDimensions().x()
-        );
-        for (Block block : blocks) {
-            gameObjects().addGameObject(block, Layer.STATIC_OBJECTS);
-        }
-
-        // create night
-        GameObject night = Night.create(windowController.getWindowDimensions(), DAY_NIGHT_CYCLE_LENGTH);
-        gameObjects().addGameObject(night, Layer.FOREGROUND);
-
-        // create sun
-        GameObject sun = Sun.create(windowController.getWindowDimensions(), DAY_NIGHT_CYCLE_LENGTH);
-        gameObjects().addGameObject(sun, Layer.BACKGROUND);
-
-        // create sun halo
-        GameObject sunHalo = SunHalo.create(sun);
-        gameObjects().addGameObject(sunHalo, Layer.BACKGROUND);
-
         // create avatar
         Avatar avatar = new Avatar(
-                new Vector2(
-                        Block.SIZE,
-                        windowController.getWindowDimensions().y() *
-                                Terrain.INITIAL_GROUND_HEIGHT_AT_X0_FACTOR
-                ),
-                inputListener,
-                imageReader
+                PepseWorld.spawnPoint(windowController.getWindowDimensions()),
+                createInputSource(inputListener)
         );
-        gameObjects().addGameObject(avatar);
-        gameObjects().addGameObject(avatar.getEnergyDisplayer(), Layer.UI);
-
-        // create trees with leaves and fruits.
-        Flora flora = new Flora(terrain, DAY_NIGHT_CYCLE_LENGTH);
-        List<Tree> trees = flora.createInRange(
-                Avatar.AVATAR_SIZE + Block.SIZE,
-                (int) windowController.getWindowDimensions().x()
+
+        // build the world around the avatar
+        world = new PepseWorld(
+                Scene.of(gameObjects()),
+                windowController.getWindowDimensions(),
+                worldSeed,
+                avatar,
+                clock
         );
-        for (Tree tree : trees) {
-            gameObjects().addGameObject(tree.getTrunk(), Layer.STATIC_OBJECTS);
-            for (GameObject leaf : tree.getLeafs()) {
-                gameObjects().addGameObject(leaf, Layer.STATIC_OBJECTS);
-            }
-            for (GameObject fruit : tree.getFruits()) {
-                gameObjects().addGameObject(fruit);
+
+        // follow the avatar sideways, keeping the ground at its initial height on screen
+        setCamera(createCamera(avatar, windowController.getWindowDimensions()));
+    }
+
+    /*
+     * Creates a camera following the avatar horizontally only. It follows the avatar's interpolated
+     * position, the one its sprite is drawn at, so the world scrolls as smoothly as the avatar
+     * moves. Its height stays fixed, so the view never reaches past the bottom of the terrain,
+     * which ends at the bottom of the window.
+     *
+     * @param avatar The avatar.
+     * @param windowDimensions The dimensions of the window.
+     * @return The camera.
+     */
+    private static Camera createCamera(Avatar avatar, Vector2 windowDimensions) {
+        float centerY = windowDimensions.y() * CAMERA_CENTER_HEIGHT_FACTOR;
+        return new Camera(avatar, Vector2.ZERO, windowDimensions, windowDimensions) {
+            @Override
+            public void update(float deltaTime) {
+                super.update(deltaTime);
+                setCenter(new Vector2(avatar.getInterpolatedCenter().x(), centerY));
             }
-            avatar.registerObserver(tree);
+        };
+    }
+
+    /*
+     * Creates the source of the avatar's keys: the replayed session, or the keyboard, recorded if
+     * a recording file was given. A recording is closed when the game exits.
+     *
+     * @param inputListener The user input listener.
+     * @return The input source.
+     */
+    private InputSource createInputSource(UserInputListener inputListener) {
+        if (replay != null) {
+            return replay;
+        }
+        InputSource live = new LiveInputSource(inputListener);
+        if (recordingPath == null) {
+            return live;
+        }
+        try {
+            recording = new RecordingInputSource(
+                    live,
+                    new BufferedOutputStream(Files.newOutputStream(recordingPath)),
+                    worldSeed,
+                    clock.getStepsPerSecond()
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread(recording::close));
+            return recording;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Updates the game, streaming the world around the avatar, suspending what is out of view,
+     * swaying the leafs, advancing the day and respawning the eaten fruits. The frame time is
+     * turned into fixed simulation steps first, which the avatar and the world systems then run.
+     * A recording logs how many steps each frame runs, and a replay runs as many as were logged.
+     * When profiling is on, each phase is timed and F9 writes the profile.
+     *
+     * @param deltaTime The time elapsed since the last update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        long start = FrameProfiler.start();
+        if (lastUpdateStart != 0) {
+            FrameProfiler.recordDuration(FrameProfiler.Phase.FRAME, start - lastUpdateStart);
+        }
+        lastUpdateStart = start;
+        if (clock.advance(deltaTime) > 0 && replay != null) {
+            clock.overrideSteps(replay.nextFrameSteps());
+        }
+        if (recording != null) {
+            recording.recordFrame(clock.getStepsThisFrame());
         }
+        super.update(deltaTime);
+        FrameProfiler.record(FrameProfiler.Phase.ENGINE, start);
+        world.update(camera());
+        if (FrameProfiler.ENABLED && inputListener.wasKeyPressedThisFrame(DUMP_PROFILE_KEY)) {
+            FrameProfiler.dump();
+        }
+    }
+
+    /**
+     * Returns the clock of the day-night cycle, whose time scale can be raised or time set, to go
+     * through many days quickly.
+     *
+     * @return The day-night clock, or null before the game is initialized.
+     */
+    public DayNightClock getDayNightClock() {
+        return world == null ? null : world.getDayNightClock();
     }
 }
 
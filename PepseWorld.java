@@ -0,0 +1,231 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import pepse.util.FixedStepClock;
+import pepse.util.FrameProfiler;
+import pepse.world.Avatar;
+import pepse.world.Block;
+import pepse.world.ChunkManager;
+import pepse.world.CollisionMatrix;
+import pepse.world.Scene;
+import pepse.world.Terrain;
+import pepse.world.VisibilityManager;
+import pepse.world.daynight.DayNightClock;
+import pepse.world.daynight.Night;
+import pepse.world.daynight.Sun;
+import pepse.world.daynight.SunHalo;
+import pepse.world.trees.Flora;
+import pepse.world.trees.FruitRespawnScheduler;
+import pepse.world.trees.LeafSwaySystem;
+import pepse.world.trees.Tree;
+
+/**
+ * The PepseWorld builds the simulated world into a scene: the terrain and trees streamed around
+ * the avatar, the avatar itself and the day-night cycle, and runs the world systems on every frame.
+ * It is the same whether the world is played in a window or simulated headless.
+ */
+public class PepseWorld {
+
+    /*
+     * The length of the day-night cycle.
+     */
+    private static final int DAY_NIGHT_CYCLE_LENGTH = 30;
+
+    /*
+     * The terrain representation: a pre-rendered image per chunk backed by merged colliders.
+     */
+    private static final Terrain.Mode TERRAIN_MODE = Terrain.Mode.BAKED;
+
+    /*
+     * The distance beyond each side of the camera in which world objects keep animating: the
+     * foliage of a tree at the edge of a chunk reaches that far into the neighboring chunk, plus a
+     * block to spare.
+     */
+    private static final float VISIBILITY_MARGIN = Tree.FOLIAGE_OVERHANG + Block.SIZE;
+
+    /*
+     * The foliage representation: a single canopy object per tree crown.
+     */
+    private static final Tree.Foliage FOLIAGE = Tree.Foliage.CANOPY;
+
+    /*
+     * The clock the avatar and the world are simulated on.
+     */
+    private final FixedStepClock clock;
+
+    /*
+     * The terrain generator.
+     */
+    private final Terrain terrain;
+
+    /*
+     * The avatar.
+     */
+    private final Avatar avatar;
+
+    /*
+     * The sway system animating every leaf in view.
+     */
+    private final LeafSwaySystem leafSwaySystem;
+
+    /*
+     * The scheduler respawning every eaten fruit.
+     */
+    private final FruitRespawnScheduler fruitRespawnScheduler;
+
+    /*
+     * The chunk manager streaming the world around the avatar.
+     */
+    private final ChunkManager chunkManager;
+
+    /*
+     * The clock of the day-night cycle, timing the sun, the night and fruit respawns.
+     */
+    private final DayNightClock dayNightClock;
+
+    /*
+     * The visibility manager suspending the animated world objects out of the camera's view.
+     */
+    private final VisibilityManager visibilityManager;
+
+    /**
+     * Builds the world of the given seed into a scene, around the given avatar, and loads the chunks
+     * around the avatar's spawn point right away.
+     *
+     * @param scene The scene the world's game objects are added to.
+     * @param windowDimensions The dimensions of the window the world is viewed through.
+     * @param worldSeed The world seed.
+     * @param avatar The avatar, created at the spawn point.
+     * @param clock The clock the avatar and the world are simulated on, advanced before every update.
+     */
+    public PepseWorld(
+            Scene scene,
+            Vector2 windowDimensions,
+            long worldSeed,
+            Avatar avatar,
+            FixedStepClock clock
+    ) {
+        this.clock = clock;
+        this.avatar = avatar;
+
+        // create terrain
+        terrain = new Terrain(windowDimensions, Long.hashCode(worldSeed));
+
+        // create night
+        GameObject night = Night.create(windowDimensions);
+        scene.addGameObject(night, Layer.FOREGROUND);
+
+        // create sun
+        GameObject sun = Sun.create(windowDimensions);
+        scene.addGameObject(sun, Layer.BACKGROUND);
+
+        // create sun halo
+        GameObject sunHalo = SunHalo.create(sun);
+        scene.addGameObject(sunHalo, Layer.BACKGROUND);
+
+        // drive the day-night cycle from a single clock
+        dayNightClock = new DayNightClock(windowDimensions, DAY_NIGHT_CYCLE_LENGTH);
+        dayNightClock.setObjects(sun, sunHalo, night);
+        dayNightClock.apply();
+
+        // add avatar
+        avatar.setObserverRadius(windowDimensions.x());
+        avatar.setSimulationClock(clock);
+        scene.addGameObject(avatar, CollisionMatrix.AVATAR_LAYER);
+        scene.addGameObject(avatar.getEnergyDisplayer(), Layer.UI);
+
+        // stream terrain and trees with leaves and fruits around the avatar.
+        Flora flora = new Flora(terrain, worldSeed, FOLIAGE);
+        leafSwaySystem = new LeafSwaySystem();
+        fruitRespawnScheduler = new FruitRespawnScheduler(dayNightClock);
+        visibilityManager = new VisibilityManager(
+                scene,
+                avatar,
+                leafSwaySystem,
+                VISIBILITY_MARGIN
+        );
+        chunkManager = new ChunkManager(
+                scene,
+                terrain,
+                flora,
+                visibilityManager,
+                fruitRespawnScheduler,
+                windowDimensions.x(),
+                TERRAIN_MODE
+        );
+        chunkManager.loadAround(avatar.getCenter().x());
+    }
+
+    /**
+     * Returns the point the avatar spawns at, just above the ground at the world's origin.
+     *
+     * @param windowDimensions The dimensions of the window the world is viewed through.
+     * @return The spawn point, passed to the avatar's constructor.
+     */
+    public static Vector2 spawnPoint(Vector2 windowDimensions) {
+        return new Vector2(
+                Block.SIZE,
+                windowDimensions.y() * Terrain.INITIAL_GROUND_HEIGHT_AT_X0_FACTOR
+        );
+    }
+
+    /**
+     * Updates the world after the scene's objects were updated: streams the world around the
+     * avatar, suspends what is out of view, and runs the clock's simulation steps of this frame,
+     * swaying the leafs, advancing the day and respawning the eaten fruits. The phases are timed
+     * within the steps, so profiling doesn't change their order.
+     *
+     * @param view The object whose top-left corner and dimensions define the view, usually the camera.
+     */
+    public void update(GameObject view) {
+        long start = FrameProfiler.start();
+        chunkManager.update(avatar.getCenter().x());
+        FrameProfiler.record(FrameProfiler.Phase.TERRAIN, start);
+
+        start = FrameProfiler.start();
+        visibilityManager.update(view);
+        long flora = FrameProfiler.start() - start;
+        long dayNight = 0;
+        for (int i = 0; i < clock.getStepsThisFrame(); i++) {
+            long swayStart = FrameProfiler.start();
+            leafSwaySystem.update(clock.getStep());
+            long advanceStart = FrameProfiler.start();
+            dayNightClock.advance(clock.getStep());
+            long respawnStart = FrameProfiler.start();
+            fruitRespawnScheduler.update();
+            long stepEnd = FrameProfiler.start();
+            flora += advanceStart - swayStart + stepEnd - respawnStart;
+            dayNight += respawnStart - advanceStart;
+        }
+        start = FrameProfiler.start();
+        dayNightClock.apply();
+        FrameProfiler.recordDuration(FrameProfiler.Phase.DAY_NIGHT, dayNight + FrameProfiler.start() - start);
+        FrameProfiler.recordDuration(FrameProfiler.Phase.FLORA, flora);
+    }
+
+    /**
+     * @return The terrain generator.
+     */
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * @return The avatar.
+     */
+    public Avatar getAvatar() {
+        return avatar;
+    }
+
+    /**
+     * Returns the clock of the day-night cycle, whose time scale can be raised or time set, to go
+     * through many days quickly.
+     *
+     * @return The day-night clock.
+     */
+    public DayNightClock getDayNightClock() {
+        return dayNightClock;
+    }
+}
@@ -0,0 +1,88 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.components.Component;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A PooledGameObject is a game object reused through an {@link pepse.util.ObjectPool}. It keeps
+ * track of the components added to it, such as transitions, so that a reused object starts out
+ * as fresh as a new one.
+ */
+public class PooledGameObject extends GameObject {
+
+    /*
+     * The components added since the object was constructed, or null if there are none. Those the
+     * engine may add while constructing the object are its own, and dropped from the list.
+     */
+    private List<Component> addedComponents;
+
+    /**
+     * Constructs a new PooledGameObject.
+     *
+     * @param topLeftCorner The top-left corner of the object.
+     * @param dimensions    The dimensions of the object.
+     * @param renderable    The renderable of the object, may be null.
+     */
+    public PooledGameObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        super(topLeftCorner, dimensions, renderable);
+        addedComponents = null;
+    }
+
+    /**
+     * Adds a component, removed again when the object is reset.
+     *
+     * @param component The component.
+     */
+    @Override
+    public void addComponent(Component component) {
+        super.addComponent(component);
+        if (addedComponents == null) {
+            addedComponents = new ArrayList<>();
+        }
+        addedComponents.add(component);
+    }
+
+    /**
+     * Removes a component.
+     *
+     * @param component The component.
+     */
+    @Override
+    public void removeComponent(Component component) {
+        super.removeComponent(component);
+        if (addedComponents != null) {
+            addedComponents.remove(component);
+        }
+    }
+
+    /**
+     * Resets a pooled object to a fresh state: placed and drawn anew, at rest, with the given tag
+     * and without the components added to it.
+     *
+     * @param topLeftCorner The top-left corner of the object.
+     * @param dimensions    The dimensions of the object.
+     * @param renderable    The renderable of the object.
+     * @param tag           The tag of the object.
+     */
+    protected void reset(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, String tag) {
+        setDimensions(dimensions);
+        setTopLeftCorner(topLeftCorner);
+        transform().setVelocity(Vector2.ZERO);
+        transform().setAcceleration(Vector2.ZERO);
+        renderer().setRenderable(renderable);
+        renderer().setOpaqueness(1);
+        renderer().setRenderableAngle(0);
+        setTag(tag);
+        if (addedComponents != null) {
+            for (int i = addedComponents.size() - 1; i >= 0; i--) {
+                super.removeComponent(addedComponents.get(i));
+            }
+            addedComponents.clear();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package pepse.util;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A RecordingInputSource passes the keys of another source through, recording every change of
+ * the key state with its step to a compact binary log that a {@link ReplayInputSource} replays,
+ * along with how the steps were grouped into frames, reported by {@link #recordFrame}.
+ * The log header holds the world seed and simulation rate, so a replay regenerates the same world
+ * and runs the same steps in the same frames.
+ */
+public class RecordingInputSource implements InputSource, Closeable {
+
+    /*
+     * The source whose keys are recorded.
+     */
+    private final InputSource source;
+
+    /*
+     * The log stream.
+     */
+    private final DataOutputStream out;
+
+    /*
+     * The number of steps polled so far.
+     */
+    private long step;
+
+    /*
+     * The step of the last record.
+     */
+    private long lastRecordStep;
+
+    /*
+     * The last recorded key state.
+     */
+    private int lastKeys;
+
+    /*
+     * The last recorded number of steps per frame, or 0 before the first frame.
+     */
+    private int lastFrameSteps;
+
+    /*
+     * Whether the log was closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a new RecordingInputSource and writes the log header.
+     * @param source The source whose keys are recorded.
+     * @param out The stream the log is written to, closed with the recording.
+     * @param worldSeed The seed of the recorded world.
+     * @param stepsPerSecond The simulation rate of the recorded session.
+     * @throws IOException If writing the header fails.
+     */
+    public RecordingInputSource(InputSource source, OutputStream out, long worldSeed, int stepsPerSecond)
+            throws IOException {
+        this.source = source;
+        this.out = new DataOutputStream(out);
+        this.step = 0;
+        this.lastRecordStep = 0;
+        this.lastKeys = 0;
+        this.lastFrameSteps = 0;
+        this.closed = false;
+        this.out.writeInt(InputLog.MAGIC);
+        this.out.writeByte(InputLog.VERSION);
+        this.out.writeLong(worldSeed);
+        this.out.writeInt(stepsPerSecond);
+    }
+
+    /**
+     * Returns the keys of the recorded source, recording them if they changed.
+     * @return The bit mask of the pressed keys.
+     */
+    @Override
+    public synchronized int pollKeys() {
+        int keys = source.pollKeys();
+        if (keys != lastKeys && !closed) {
+            writeRecord(keys);
+            lastKeys = keys;
+        }
+        step++;
+        return keys;
+    }
+
+    /**
+     * Records the number of steps of the frame about to be simulated, before its keys are polled,
+     * if it differs from the previous frame's. Frames without a step aren't recorded.
+     * @param steps The number of steps of the frame.
+     * @throws IllegalArgumentException If the frame has more steps than a record holds.
+     */
+    public synchronized void recordFrame(int steps) {
+        if (steps > InputLog.MAX_FRAME_STEPS) {
+            throw new IllegalArgumentException("Too many steps in a frame: " + steps);
+        }
+        if (steps > 0 && steps != lastFrameSteps && !closed) {
+            writeRecord(InputLog.FRAME_STEPS + steps);
+            lastFrameSteps = steps;
+        }
+    }
+
+    /**
+     * @return The number of steps recorded so far.
+     */
+    public synchronized long getStepCount() {
+        return step;
+    }
+
+    /**
+     * Closes the log, marking the last recorded step. Further keys are passed through unrecorded.
+     * Closing twice does nothing.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        writeRecord(InputLog.END);
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Writes a record at the current step.
+     *
+     * @param value The key state, or the frame pacing.
+     */
+    private void writeRecord(int value) {
+        try {
+            InputLog.writeVarLong(out, step - lastRecordStep);
+            out.writeByte(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastRecordStep = step;
+    }
+}
@@ -0,0 +1,72 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.Color;
+
+/**
+ * A RenderablePalette holds a fixed number of pre-built rectangle renderables, each an
+ * approximation of the same base color, shared by every object that picks from it.
+ * Picks are deterministic, so the same cell always gets the same shade.
+ */
+public class RenderablePalette {
+
+    /*
+     * The shades of the palette.
+     */
+    private final Color[] colors;
+
+    /*
+     * The renderables of the palette, one per shade.
+     */
+    private final Renderable[] renderables;
+
+    /**
+     * Constructs a new palette of approximations of the given base color.
+     * @param baseColor The base color.
+     * @param size The number of shades in the palette.
+     */
+    public RenderablePalette(Color baseColor, int size) {
+        this.colors = new Color[size];
+        this.renderables = new Renderable[size];
+        for (int i = 0; i < size; i++) {
+            colors[i] = ColorSupplier.approximateColor(baseColor);
+            renderables[i] = new RectangleRenderable(colors[i]);
+        }
+    }
+
+    /**
+     * Returns the renderable assigned to the given cell.
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
+     * @return The shared renderable.
+     */
+    public Renderable pick(int x, int y) {
+        return renderables[indexOf(x, y)];
+    }
+
+    /**
+     * Returns the color of the renderable assigned to the given cell.
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
+     * @return The color.
+     */
+    public Color pickColor(int x, int y) {
+        return colors[indexOf(x, y)];
+    }
+
+    /*
+     * Hashes the given cell into a palette index.
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
+     * @return The palette index.
+     */
+    private int indexOf(int x, int y) {
+        int hash = x * 0x9E3779B1 + y * 0x85EBCA6B;
+        hash ^= hash >>> 15;
+        hash *= 0x2C1B3C6D;
+        hash ^= hash >>> 13;
+        return Math.floorMod(hash, colors.length);
+    }
+}
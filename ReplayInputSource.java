@@ -0,0 +1,192 @@
+package pepse.util;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A ReplayInputSource plays back a log written by a {@link RecordingInputSource}, yielding the
+ * recorded keys step by step, and the number of steps of every frame through
+ * {@link #nextFrameSteps()}. Run on the recorded world seed and simulation rate, with the clock
+ * driven by the recorded frames, the avatar goes through the very same steps and collisions as in
+ * the recorded session. Past the end of the log no key is pressed.
+ */
+public class ReplayInputSource implements InputSource {
+
+    /*
+     * The log stream.
+     */
+    private final DataInputStream in;
+
+    /*
+     * The seed of the recorded world.
+     */
+    private final long worldSeed;
+
+    /*
+     * The simulation rate of the recorded session.
+     */
+    private final int stepsPerSecond;
+
+    /*
+     * The number of steps polled so far.
+     */
+    private long step;
+
+    /*
+     * The step of the last record read.
+     */
+    private long lastRecordStep;
+
+    /*
+     * The step of the next record to apply, or Long.MAX_VALUE if there is none.
+     */
+    private long nextRecordStep;
+
+    /*
+     * The key state or frame pacing of the next record to apply.
+     */
+    private int nextRecordValue;
+
+    /*
+     * The step the log ends at, or Long.MAX_VALUE until its end is read.
+     */
+    private long endStep;
+
+    /*
+     * The current key state.
+     */
+    private int keys;
+
+    /*
+     * The current number of steps per frame.
+     */
+    private int frameSteps;
+
+    /*
+     * Constructs a new ReplayInputSource over a log whose header was read.
+     *
+     * @param in The log stream, positioned after the header.
+     * @param worldSeed The seed of the recorded world.
+     * @param stepsPerSecond The simulation rate of the recorded session.
+     */
+    private ReplayInputSource(DataInputStream in, long worldSeed, int stepsPerSecond) throws IOException {
+        this.in = in;
+        this.worldSeed = worldSeed;
+        this.stepsPerSecond = stepsPerSecond;
+        this.step = 0;
+        this.lastRecordStep = 0;
+        this.nextRecordStep = Long.MAX_VALUE;
+        this.endStep = Long.MAX_VALUE;
+        this.keys = 0;
+        this.frameSteps = 1;
+        readRecord();
+    }
+
+    /**
+     * Opens a recorded log, reading its header.
+     * @param in The stream the log is read from.
+     * @return The replay.
+     * @throws IOException If reading fails or the stream isn't an input log.
+     */
+    public static ReplayInputSource open(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != InputLog.MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        byte version = data.readByte();
+        if (version != InputLog.VERSION) {
+            throw new IOException("Unsupported input log version " + version);
+        }
+        long worldSeed = data.readLong();
+        int stepsPerSecond = data.readInt();
+        return new ReplayInputSource(data, worldSeed, stepsPerSecond);
+    }
+
+    /**
+     * @return The seed of the recorded world.
+     */
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    /**
+     * @return The simulation rate of the recorded session.
+     */
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    /**
+     * @return Whether every recorded step was replayed.
+     */
+    public boolean isFinished() {
+        return step >= endStep;
+    }
+
+    /**
+     * Returns the recorded number of steps of the next frame that simulates any, to advance the
+     * clock by in place of the frame's own time. Called before the frame's keys are polled.
+     * @return The number of steps of the frame, at least 1.
+     */
+    public int nextFrameSteps() {
+        applyRecords();
+        return frameSteps;
+    }
+
+    /**
+     * Returns the recorded keys of the next step.
+     * @return The bit mask of the pressed keys.
+     */
+    @Override
+    public int pollKeys() {
+        applyRecords();
+        int polledKeys = step >= endStep ? 0 : keys;
+        step++;
+        return polledKeys;
+    }
+
+    /*
+     * Applies the records of the current step.
+     */
+    private void applyRecords() {
+        while (step == nextRecordStep) {
+            if (nextRecordValue > InputLog.FRAME_STEPS) {
+                frameSteps = nextRecordValue - InputLog.FRAME_STEPS;
+            } else {
+                keys = nextRecordValue;
+            }
+            try {
+                readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /*
+     * Reads the next record. The end record, or the end of a truncated log, ends the replay.
+     */
+    private void readRecord() throws IOException {
+        long recordStep;
+        int recordValue;
+        try {
+            recordStep = lastRecordStep + InputLog.readVarLong(in);
+            recordValue = in.readUnsignedByte();
+        } catch (EOFException e) {
+            recordStep = lastRecordStep;
+            recordValue = InputLog.END;
+        }
+        lastRecordStep = recordStep;
+        if (recordValue == InputLog.END) {
+            endStep = recordStep;
+            nextRecordStep = Long.MAX_VALUE;
+            in.close();
+        } else {
+            nextRecordStep = recordStep;
+            nextRecordValue = recordValue;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+/**
+ * A Scene is what the world's game objects are added to and removed from: the game's object
+ * collection when the world is played, or a bare list of objects when it is simulated headless.
+ */
+public interface Scene {
+
+    /**
+     * Adds a game object to the scene.
+     *
+     * @param gameObject The game object.
+     * @param layer The layer to add it to.
+     */
+    void addGameObject(GameObject gameObject, int layer);
+
+    /**
+     * Removes a game object from the scene.
+     *
+     * @param gameObject The game object.
+     * @param layer The layer it was added to.
+     * @return True if the game object was in the scene.
+     */
+    boolean removeGameObject(GameObject gameObject, int layer);
+
+    /**
+     * Creates a scene adding to and removing from a game's object collection.
+     *
+     * @param gameObjects The game objects collection.
+     * @return The scene.
+     */
+    static Scene of(GameObjectCollection gameObjects) {
+        return new Scene() {
+            @Override
+            public void addGameObject(GameObject gameObject, int layer) {
+                gameObjects.addGameObject(gameObject, layer);
+            }
+
+            @Override
+            public boolean removeGameObject(GameObject gameObject, int layer) {
+                return gameObjects.removeGameObject(gameObject, layer);
+            }
+        };
+    }
+}
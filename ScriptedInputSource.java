@@ -0,0 +1,57 @@
+package pepse.util;
+
+/**
+ * A ScriptedInputSource plays the avatar's keys from a fixed script, one entry per simulation
+ * step, starting over once the script ends. It drives the avatar when nobody is at the keyboard.
+ */
+public class ScriptedInputSource implements InputSource {
+
+    /*
+     * The keys of each step of the script.
+     */
+    private final int[] script;
+
+    /*
+     * The position of the next step in the script.
+     */
+    private int next;
+
+    /**
+     * Constructs a new ScriptedInputSource.
+     * @param script The bit mask of the pressed keys on each step, must not be empty.
+     */
+    public ScriptedInputSource(int[] script) {
+        if (script.length == 0) {
+            throw new IllegalArgumentException("The script must have at least one step");
+        }
+        this.script = script.clone();
+        this.next = 0;
+    }
+
+    /**
+     * Creates a script that runs in one direction, jumping every given number of steps.
+     *
+     * @param direction The key to hold, KEY_LEFT or KEY_RIGHT, or 0 to jump in place.
+     * @param stepsBetweenJumps The number of steps between jumps, the jump key is held on the last.
+     * @return The input source.
+     */
+    public static ScriptedInputSource runAndJump(int direction, int stepsBetweenJumps) {
+        int[] script = new int[stepsBetweenJumps];
+        for (int i = 0; i < script.length; i++) {
+            script[i] = direction;
+        }
+        script[script.length - 1] |= KEY_JUMP;
+        return new ScriptedInputSource(script);
+    }
+
+    /**
+     * Returns the keys of the next step of the script.
+     * @return The bit mask of the pressed keys.
+     */
+    @Override
+    public int pollKeys() {
+        int keys = script[next];
+        next = (next + 1) % script.length;
+        return keys;
+    }
+}
@@ -2,10 +2,11 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.AssetService;
+
 import java.awt.Color;
 
 /**
@@ -37,15 +38,22 @@ public class Sky extends GameObject{
     }
 
     /**
-     * Create a new sky GameObject.
+     * Starts decoding the sky image in the background.
+     */
+    public static void preloadAssets() {
+        AssetService.preload(false, SKY_IMAGE_PATH);
+    }
+
+    /**
+     * Create a new sky GameObject, sharing the sky image with every other sky.
      * @param windowDimensions The dimensions of the window.
      * @return The sky GameObject.
      */
-    public static GameObject create(Vector2 windowDimensions, ImageReader imageReader) {
+    public static GameObject create(Vector2 windowDimensions) {
         GameObject sky = new GameObject(
                 Vector2.ZERO,
                 windowDimensions,
-                imageReader.readImage(SKY_IMAGE_PATH, false)
+                AssetService.renderable(SKY_IMAGE_PATH, false)
         );
         sky.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         sky.setTag(SKY_TAG);
@@ -0,0 +1,152 @@
+package pepse.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A SpatialObserverRegistry holds observers placed at x coordinates, bucketed by fixed-width
+ * x ranges, so that notifying the observers around a point only visits the nearby buckets.
+ * Registering and removing an observer take constant time.
+ */
+public class SpatialObserverRegistry {
+
+    /*
+     * The width of the x range of a bucket.
+     */
+    private final float bucketWidth;
+
+    /*
+     * The non-empty buckets, by bucket index.
+     */
+    private final Map<Integer, ArrayList<Entry>> buckets;
+
+    /*
+     * The entry of every registered observer.
+     */
+    private final Map<Observer, Entry> entries;
+
+    /**
+     * Constructs a new, empty registry.
+     * @param bucketWidth The width of the x range of a bucket.
+     */
+    public SpatialObserverRegistry(float bucketWidth) {
+        this.bucketWidth = bucketWidth;
+        this.buckets = new HashMap<>();
+        this.entries = new IdentityHashMap<>();
+    }
+
+    /**
+     * Registers an observer at the given x coordinate. Does nothing if it is already registered.
+     * @param observer The observer.
+     * @param x The x coordinate of the observer.
+     */
+    public void register(Observer observer, float x) {
+        if (entries.containsKey(observer)) {
+            return;
+        }
+        int bucketIndex = bucketIndexOf(x);
+        ArrayList<Entry> bucket = buckets.computeIfAbsent(bucketIndex, index -> new ArrayList<>());
+        Entry entry = new Entry(observer, x, bucketIndex, bucket.size());
+        bucket.add(entry);
+        entries.put(observer, entry);
+    }
+
+    /**
+     * Removes an observer. Does nothing if it isn't registered.
+     * @param observer The observer.
+     */
+    public void remove(Observer observer) {
+        Entry entry = entries.remove(observer);
+        if (entry == null) {
+            return;
+        }
+        ArrayList<Entry> bucket = buckets.get(entry.bucketIndex);
+        Entry last = bucket.remove(bucket.size() - 1);
+        if (last != entry) {
+            bucket.set(entry.position, last);
+            last.position = entry.position;
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(entry.bucketIndex);
+        }
+    }
+
+    /**
+     * Notifies every observer within the given distance of the given x coordinate.
+     * @param x The x coordinate.
+     * @param radius The maximal distance of a notified observer.
+     * @return The number of notified observers.
+     */
+    public int notifyNear(float x, float radius) {
+        int notified = 0;
+        int lastBucketIndex = bucketIndexOf(x + radius);
+        for (int i = bucketIndexOf(x - radius); i <= lastBucketIndex; i++) {
+            ArrayList<Entry> bucket = buckets.get(i);
+            if (bucket == null) {
+                continue;
+            }
+            for (int j = 0; j < bucket.size(); j++) {
+                Entry entry = bucket.get(j);
+                if (Math.abs(entry.x - x) <= radius) {
+                    entry.observer.update();
+                    notified++;
+                }
+            }
+        }
+        return notified;
+    }
+
+    /**
+     * @return The number of registered observers.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /*
+     * Returns the index of the bucket holding the given x coordinate.
+     * @param x The x coordinate.
+     * @return The bucket index.
+     */
+    private int bucketIndexOf(float x) {
+        return (int) Math.floor(x / bucketWidth);
+    }
+
+    /*
+     * A registered observer and its place in the registry.
+     */
+    private static class Entry {
+
+        /*
+         * The observer.
+         */
+        private final Observer observer;
+
+        /*
+         * The x coordinate of the observer.
+         */
+        private final float x;
+
+        /*
+         * The index of the bucket holding the entry.
+         */
+        private final int bucketIndex;
+
+        /*
+         * The position of the entry in its bucket.
+         */
+        private int position;
+
+        /*
+         * Constructs a new entry.
+         */
+        private Entry(Observer observer, float x, int bucketIndex, int position) {
+            this.observer = observer;
+            this.x = x;
+            this.bucketIndex = bucketIndex;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package pepse.util;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A SpriteAtlas packs several sprite frames side by side into a single image and hands out a
+ * shared, immutable renderable per frame. The frames are views into the atlas image, so the pixels
+ * of all the frames live in one buffer.
+ */
+public class SpriteAtlas {
+
+    /*
+     * The atlas image.
+     */
+    private final BufferedImage image;
+
+    /*
+     * The renderable of each frame.
+     */
+    private final Renderable[] frames;
+
+    /*
+     * Constructs a new atlas.
+     *
+     * @param image The atlas image.
+     * @param frames The renderable of each frame.
+     */
+    private SpriteAtlas(BufferedImage image, Renderable[] frames) {
+        this.image = image;
+        this.frames = frames;
+    }
+
+    /**
+     * Packs the given images into an atlas, in a single row, in order.
+     * @param images The frame images.
+     * @return The atlas.
+     */
+    public static SpriteAtlas pack(BufferedImage[] images) {
+        int width = 0;
+        int height = 0;
+        for (BufferedImage frame : images) {
+            width += frame.getWidth();
+            height = Math.max(height, frame.getHeight());
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        Renderable[] frames = new Renderable[images.length];
+        int x = 0;
+        for (int i = 0; i < images.length; i++) {
+            BufferedImage frame = images[i];
+            graphics.drawImage(frame, x, 0, null);
+            frames[i] = new ImageRenderable(image.getSubimage(x, 0, frame.getWidth(), frame.getHeight()));
+            x += frame.getWidth();
+        }
+        graphics.dispose();
+        return new SpriteAtlas(image, frames);
+    }
+
+    /**
+     * @return The number of frames.
+     */
+    public int frameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Returns the renderable of a frame.
+     * @param index The index of the frame, in packing order.
+     * @return The shared renderable of the frame.
+     */
+    public Renderable frame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * Returns the renderables of consecutive frames, such as the clips of an animation.
+     * @param from The index of the first frame.
+     * @param count The number of frames.
+     * @return A new array of the shared renderables of the frames.
+     */
+    public Renderable[] frames(int from, int count) {
+        return Arrays.copyOfRange(frames, from, from + count);
+    }
+
+    /**
+     * @return The width of the atlas image, in pixels.
+     */
+    public int width() {
+        return image.getWidth();
+    }
+
+    /**
+     * @return The height of the atlas image, in pixels.
+     */
+    public int height() {
+        return image.getHeight();
+    }
+}
@@ -2,7 +2,6 @@ package pepse.world.daynight;
 
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
@@ -49,43 +48,51 @@ public class Sun extends GameObject{
     }
 
     /**
-     * Create a new sun GameObject.
+     * Create a new sun GameObject. The sun is moved along its path by a {@link DayNightClock}.
      * @param windowDimension The dimensions of the window.
-     * @param cycleLength The length of the day-night cycle.
      * @return The sun GameObject.
      */
-    public static GameObject create(Vector2 windowDimension, float cycleLength){
-        Vector2 initialSunCenter = new Vector2(
-                windowDimension.x()/2 - SUN_RADIUS,
-                windowDimension.y()/3 - SUN_RADIUS
-        );
-
+    public static GameObject create(Vector2 windowDimension){
         GameObject sun = new Sun(
-                initialSunCenter,
+                initialCenterOf(windowDimension),
                 new Vector2(SUN_RADIUS*2,SUN_RADIUS*2),
                 new OvalRenderable(Color.YELLOW)
         );
         sun.setTag(SUN_TAG);
         sun.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        return sun;
+    }
 
+    /**
+     * Samples the path of the sun's center over a day-night cycle, a circle around the ground
+     * at the middle of the window, starting at noon.
+     * @param windowDimension The dimensions of the window.
+     * @param samples The number of samples.
+     * @return The sun's center at each sample, evenly spaced in time.
+     */
+    static Vector2[] createPath(Vector2 windowDimension, int samples){
+        Vector2 initialSunCenter = initialCenterOf(windowDimension);
         Vector2 cycleCenter = new Vector2(
                 windowDimension.x()/2,
                 windowDimension.y() * Terrain.INITIAL_GROUND_HEIGHT_AT_X0_FACTOR
         );
+        Vector2[] path = new Vector2[samples];
+        for (int i = 0; i < samples; i++) {
+            float angle = INITIAL_ANGLE + (FINAL_ANGLE - INITIAL_ANGLE) * i / samples;
+            path[i] = initialSunCenter.subtract(cycleCenter).rotated(angle).add(cycleCenter);
+        }
+        return path;
+    }
 
-        new Transition<Float>(
-                sun,
-                (Float angle) -> sun.setCenter (initialSunCenter.subtract(cycleCenter)
-                        .rotated(angle)
-                        .add(cycleCenter)),
-                INITIAL_ANGLE,
-                FINAL_ANGLE,
-                Transition.LINEAR_INTERPOLATOR_FLOAT,
-                cycleLength,
-                Transition.TransitionType.TRANSITION_LOOP,
-                null
+    /*
+     * Returns the sun's center at noon.
+     * @param windowDimension The dimensions of the window.
+     * @return The center.
+     */
+    private static Vector2 initialCenterOf(Vector2 windowDimension){
+        return new Vector2(
+                windowDimension.x()/2 - SUN_RADIUS,
+                windowDimension.y()/3 - SUN_RADIUS
         );
-
-        return sun;
     }
 }
@@ -41,6 +41,7 @@ public class SunHalo extends GameObject {
 
     /**
      * This method creates a sun halo game object and returns it.
+     * The halo follows the sun as the {@link DayNightClock} moves them both.
      * @param sun The sun game object.
      * @return The sun halo game object.
      */
@@ -52,7 +53,6 @@ public class SunHalo extends GameObject {
         );
         sunHalo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         sunHalo.setTag(SUN_HALO_TAG);
-        sunHalo.addComponent((float deltaTime) -> sunHalo.setCenter(sun.getCenter()));
         return sunHalo;
     }
 }
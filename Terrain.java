@@ -1,19 +1,43 @@
 package pepse.world;
 
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.GameObject;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
+import pepse.util.RenderablePalette;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 
 /**
  * The Terrain class represents the terrain in the game.
  */
 public class Terrain {
 
+    /**
+     * The ways the terrain can be represented by game objects.
+     */
+    public enum Mode {
+        /**
+         * One colliding block per cell.
+         */
+        BLOCKS,
+        /**
+         * One collider per run of same-height columns, and one render-only tile per cell.
+         */
+        MERGED_COLLIDERS,
+        /**
+         * One collider per run of same-height columns, and a single pre-rendered image per section.
+         */
+        BAKED
+    }
+
     /**
      * The initial ground height at x=0 factor.
      */
@@ -24,11 +48,38 @@ public class Terrain {
      */
     private static final String BLOCK_TAG = "block";
 
+    /*
+     * The render-only tile tag.
+     */
+    private static final String TILE_TAG = "tile";
+
     /*se
      * The base ground color.
      */
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
 
+    /*
+     * The number of ground shades.
+     */
+    private static final int GROUND_PALETTE_SIZE = 16;
+
+    /*
+     * The shared ground renderables.
+     */
+    private static final RenderablePalette GROUND_PALETTE =
+            new RenderablePalette(BASE_GROUND_COLOR, GROUND_PALETTE_SIZE);
+
+    /*
+     * The horizontal scale factor of the ground noise.
+     */
+    private static final double NOISE_FACTOR = Block.SIZE * 7;
+
+    /*
+     * Per-thread scratch buffer holding the raw noise samples of a batch.
+     */
+    private static final ThreadLocal<double[]> NOISE_SCRATCH =
+            ThreadLocal.withInitial(() -> new double[Chunk.WIDTH_IN_BLOCKS]);
+
     /*
      * The ground height at x=0.
      */
@@ -44,6 +95,17 @@ public class Terrain {
      */
     private final Vector2 windowDimensions;
 
+    /*
+     * The height maps of the loaded chunks, by chunk index.
+     * Height maps are computed by the chunk generation workers and read from any thread.
+     */
+    private final Map<Integer, HeightMap> heightMaps;
+
+    /*
+     * The last height map looked up, or null if none is cached.
+     */
+    private volatile HeightMap lastHeightMap;
+
     /**
      * Constructor for the Terrain class.
      * @param windowDimensions The dimensions of the window.
@@ -53,26 +115,127 @@ public class Terrain {
         this.windowDimensions = windowDimensions;
         this.groundHeightAtX0 = (int) (windowDimensions.y() * INITIAL_GROUND_HEIGHT_AT_X0_FACTOR);
         this.noiseGenerator = new NoiseGenerator(seed, this.groundHeightAtX0);
+        this.heightMaps = new ConcurrentHashMap<>();
+        this.lastHeightMap = null;
     }
 
     /**
      * Returns the ground height at the given x coordinate.
+     * Block-aligned coordinates inside a chunk with a loaded height map are answered from the map.
      * @param x The x coordinate.
      * @return The ground height.
      */
     public float groundHeightAt(float x) {
-        float noise = (float) noiseGenerator.noise(x, Block.SIZE * 7);
-        return groundHeightAtX0 + noise;
+        int column = (int) Math.floor(x / Block.SIZE);
+        if (column * Block.SIZE == x) {
+            HeightMap heightMap = heightMapOf(Math.floorDiv(column, Chunk.WIDTH_IN_BLOCKS));
+            if (heightMap != null) {
+                return heightMap.heightAt(Math.floorMod(column, Chunk.WIDTH_IN_BLOCKS));
+            }
+        }
+        return computeGroundHeightAt(x);
     }
 
+    /**
+     * Fills the given array with the ground heights of consecutive block columns, in one pass.
+     * The noise is sampled into a per-thread scratch buffer first, and then offset and narrowed
+     * to float in a separate branch-free loop over primitive arrays that the JIT can vectorize.
+     * @param startX The x coordinate of the first column, a multiple of the block size.
+     * @param heights The array to fill, heights[i] is the ground height at startX + i * Block.SIZE.
+     */
+    public void fillGroundHeights(int startX, float[] heights) {
+        double[] noise = NOISE_SCRATCH.get();
+        if (noise.length < heights.length) {
+            noise = new double[heights.length];
+            NOISE_SCRATCH.set(noise);
+        }
+        for (int i = 0; i < heights.length; i++) {
+            noise[i] = noiseGenerator.noise(startX + i * Block.SIZE, NOISE_FACTOR);
+        }
+        float base = groundHeightAtX0;
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = base + (float) noise[i];
+        }
+    }
+
+    /**
+     * Computes the height map of the chunk with the given index, so that ground height queries
+     * for its block columns become array lookups. Safe to call from any thread.
+     * @param chunkIndex The chunk index.
+     */
+    void loadHeightMap(int chunkIndex) {
+        float[] heights = new float[Chunk.WIDTH_IN_BLOCKS];
+        fillGroundHeights(Chunk.minXOf(chunkIndex), heights);
+        heightMaps.put(chunkIndex, new HeightMap(chunkIndex, heights));
+    }
 
     /**
-     * Creates a list of blocks in the given x range.
+     * Evicts the height map of the chunk with the given index.
+     * @param chunkIndex The chunk index.
+     */
+    void evictHeightMap(int chunkIndex) {
+        heightMaps.remove(chunkIndex);
+        HeightMap last = lastHeightMap;
+        if (last != null && last.getChunkIndex() == chunkIndex) {
+            lastHeightMap = null;
+        }
+    }
+
+
+    /**
+     * Creates a list of blocks in the given x range, recorded as a flight recorder event.
      * @param minX The minimum x coordinate.
      * @param maxX The maximum x coordinate.
      * @return The list of blocks.
      */
     public List<Block> createInRange(int minX,int maxX) {
+        TerrainGenerationEvent event = new TerrainGenerationEvent();
+        event.begin();
+        List<Block> blocks = createBlocks(minX, maxX);
+        event.end();
+        if (event.shouldCommit()) {
+            event.minX = minX;
+            event.maxX = maxX;
+            event.mode = Mode.BLOCKS.name();
+            event.colliderCount = blocks.size();
+            event.commit();
+        }
+        return blocks;
+    }
+
+    /**
+     * Creates the terrain in the given x range in the given mode, recorded as a flight recorder event.
+     * In the merged and baked modes each run of adjacent columns sharing the same surface height is
+     * backed by a single invisible collider reaching the bottom of the window, and the looks are left
+     * to render-only tiles: one per cell when merged, or a single pre-rendered image when baked.
+     * @param minX The minimum x coordinate.
+     * @param maxX The maximum x coordinate.
+     * @param mode The terrain mode.
+     * @return The terrain section holding the colliders and the tiles.
+     */
+    public TerrainSection createSection(int minX, int maxX, Mode mode) {
+        TerrainGenerationEvent event = new TerrainGenerationEvent();
+        event.begin();
+        TerrainSection section = buildSection(minX, maxX, mode);
+        event.end();
+        if (event.shouldCommit()) {
+            event.minX = minX;
+            event.maxX = maxX;
+            event.mode = mode.name();
+            event.colliderCount = section.getColliders().size();
+            event.tileCount = section.getTiles().size();
+            event.commit();
+        }
+        return section;
+    }
+
+    /*
+     * Creates a block per terrain cell in the given x range.
+     * @param minX The minimum x coordinate.
+     * @param maxX The maximum x coordinate.
+     * @return The list of blocks.
+     */
+    private List<Block> createBlocks(int minX, int maxX) {
         int startX = (minX / Block.SIZE) * Block.SIZE;
         int endX = (int) Math.ceil( (float) maxX / Block.SIZE) * Block.SIZE;
         List<Block> blocks =  new ArrayList<>();
@@ -85,6 +248,171 @@ public class Terrain {
         return blocks;
     }
 
+    /*
+     * Creates the terrain in the given x range in the given mode.
+     * @param minX The minimum x coordinate.
+     * @param maxX The maximum x coordinate.
+     * @param mode The terrain mode.
+     * @return The terrain section holding the colliders and the tiles.
+     */
+    private TerrainSection buildSection(int minX, int maxX, Mode mode) {
+        if (mode == Mode.BLOCKS) {
+            return new TerrainSection(createBlocks(minX, maxX), Collections.emptyList());
+        }
+        int startX = (minX / Block.SIZE) * Block.SIZE;
+        int endX = (int) Math.ceil( (float) maxX / Block.SIZE) * Block.SIZE;
+        int[] columnTops = new int[Math.max(endX - startX, 0) / Block.SIZE];
+        for (int i = 0; i < columnTops.length; i++) {
+            columnTops[i] = ((int) Math.floor(groundHeightAt(startX + i * Block.SIZE)) / Block.SIZE) * Block.SIZE;
+        }
+        List<GameObject> tiles;
+        if (mode == Mode.BAKED) {
+            tiles = new ArrayList<>();
+            GameObject bakedTiles = bakeTiles(startX, columnTops);
+            if (bakedTiles != null) {
+                tiles.add(bakedTiles);
+            }
+        } else {
+            tiles = createTiles(startX, columnTops);
+        }
+        return new TerrainSection(createColliders(startX, columnTops), tiles);
+    }
+
+    /*
+     * Returns the height map of the chunk with the given index.
+     * @param chunkIndex The chunk index.
+     * @return The height map, or null if it isn't loaded.
+     */
+    private HeightMap heightMapOf(int chunkIndex) {
+        HeightMap heightMap = lastHeightMap;
+        if (heightMap == null || heightMap.getChunkIndex() != chunkIndex) {
+            heightMap = heightMaps.get(chunkIndex);
+            if (heightMap == null) {
+                return null;
+            }
+            lastHeightMap = heightMap;
+        }
+        return heightMap;
+    }
+
+    /*
+     * Computes the ground height at the given x coordinate from the noise generator.
+     * @param x The x coordinate.
+     * @return The ground height.
+     */
+    private float computeGroundHeightAt(float x) {
+        float noise = (float) noiseGenerator.noise(x, NOISE_FACTOR);
+        return groundHeightAtX0 + noise;
+    }
+
+    /*
+     * Creates one collider per run of adjacent columns sharing the same top.
+     * @param startX The x coordinate of the first column.
+     * @param columnTops The y coordinate of the top block of each column.
+     * @return The colliders.
+     */
+    private List<Block> createColliders(int startX, int[] columnTops) {
+        int bottomY = (int) windowDimensions.y();
+        List<Block> colliders = new ArrayList<>();
+        int runStart = 0;
+        for (int i = 1; i <= columnTops.length; i++) {
+            if (i == columnTops.length || columnTops[i] != columnTops[runStart]) {
+                colliders.add(createColliderAt(
+                        startX + runStart * Block.SIZE,
+                        columnTops[runStart],
+                        (i - runStart) * Block.SIZE,
+                        bottomY - columnTops[runStart]
+                ));
+                runStart = i;
+            }
+        }
+        return colliders;
+    }
+
+    /*
+     * Creates a render-only tile for every cell of the given columns.
+     * @param startX The x coordinate of the first column.
+     * @param columnTops The y coordinate of the top block of each column.
+     * @return The tiles.
+     */
+    private List<GameObject> createTiles(int startX, int[] columnTops) {
+        int bottomY = (int) windowDimensions.y();
+        List<GameObject> tiles = new ArrayList<>();
+        for (int i = 0; i < columnTops.length; i++) {
+            for (int j = columnTops[i]; j < bottomY; j+=Block.SIZE) {
+                tiles.add(createTileAt(startX + i * Block.SIZE, j));
+            }
+        }
+        return tiles;
+    }
+
+    /*
+     * Rasterizes every cell of the given columns, with the same per-block color variation as the
+     * tiles, into one offscreen image and wraps it in a single render-only game object.
+     * @param startX The x coordinate of the first column.
+     * @param columnTops The y coordinate of the top block of each column.
+     * @return The baked game object, or null if the columns hold no cells.
+     */
+    private GameObject bakeTiles(int startX, int[] columnTops) {
+        int bottomY = (int) windowDimensions.y();
+        int minTop = bottomY;
+        for (int top : columnTops) {
+            minTop = Math.min(minTop, top);
+        }
+        int width = columnTops.length * Block.SIZE;
+        int height = bottomY - minTop;
+        if (width == 0 || height <= 0) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int i = 0; i < columnTops.length; i++) {
+            int x = startX + i * Block.SIZE;
+            for (int j = columnTops[i]; j < bottomY; j+=Block.SIZE) {
+                graphics.setColor(GROUND_PALETTE.pickColor(x, j));
+                graphics.fillRect(x - startX, j - minTop, Block.SIZE, Block.SIZE);
+            }
+        }
+        graphics.dispose();
+        GameObject baked = new GameObject(
+                new Vector2(startX, minTop),
+                new Vector2(width, height),
+                new ImageRenderable(image)
+        );
+        baked.setTag(TILE_TAG);
+        return baked;
+    }
+
+    /*
+     * Creates an invisible collider block covering the given rectangle.
+     * @param x The x coordinate of the top left corner.
+     * @param y The y coordinate of the top left corner.
+     * @param width The width of the collider.
+     * @param height The height of the collider.
+     * @return The collider block.
+     */
+    private Block createColliderAt(int x, int y, int width, int height) {
+        Block collider = Block.create(new Vector2(x, y), new Vector2(width, Math.max(height, Block.SIZE)), null);
+        collider.setTag(BLOCK_TAG);
+        return collider;
+    }
+
+    /*
+     * Creates a render-only tile at the given coordinates.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The tile.
+     */
+    private GameObject createTileAt(int x, int y) {
+        GameObject tile = new GameObject(
+                new Vector2(x, y),
+                Vector2.ONES.mult(Block.SIZE),
+                GROUND_PALETTE.pick(x, y)
+        );
+        tile.setTag(TILE_TAG);
+        return tile;
+    }
+
     /*
      * Creates a block at the given coordinates.
      * @param x The x coordinate.
@@ -92,10 +420,9 @@ public class Terrain {
      * @return The block.
      */
     private Block createBlockAt(int x, int y) {
-        Block block = new Block(
+        Block block = Block.create(
                 new Vector2(x, y),
-                new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)
-                )
+                GROUND_PALETTE.pick(x, y)
         );
         block.setTag(BLOCK_TAG);
         return block;
@@ -0,0 +1,47 @@
+package pepse.world;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for generating the terrain of an x range.
+ */
+@Name("pepse.TerrainGeneration")
+@Label("Terrain Generation")
+@Category({"Pepse", "World"})
+@Description("Generating the terrain of an x range")
+class TerrainGenerationEvent extends Event {
+
+    /**
+     * The minimum x coordinate of the range.
+     */
+    @Label("Min X")
+    int minX;
+
+    /**
+     * The maximum x coordinate of the range.
+     */
+    @Label("Max X")
+    int maxX;
+
+    /**
+     * The terrain representation generated.
+     */
+    @Label("Mode")
+    String mode;
+
+    /**
+     * The number of blocks colliding with the avatar.
+     */
+    @Label("Colliders")
+    int colliderCount;
+
+    /**
+     * The number of render-only tiles.
+     */
+    @Label("Tiles")
+    int tileCount;
+}
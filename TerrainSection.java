@@ -0,0 +1,49 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.List;
+
+/**
+ * A TerrainSection holds the game objects generated by {@link Terrain} for a range of x coordinates.
+ * The colliders take part in the collision pass, while the tiles are purely visual and should be
+ * placed in a layer that doesn't collide with anything.
+ */
+public class TerrainSection {
+
+    /*
+     * The terrain colliders.
+     */
+    private final List<Block> colliders;
+
+    /*
+     * The render-only terrain tiles.
+     */
+    private final List<GameObject> tiles;
+
+    /**
+     * Constructs a new TerrainSection.
+     * @param colliders The terrain colliders.
+     * @param tiles The render-only terrain tiles.
+     */
+    public TerrainSection(List<Block> colliders, List<GameObject> tiles) {
+        this.colliders = colliders;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Returns the colliders of the section.
+     * @return The terrain colliders.
+     */
+    public List<Block> getColliders() {
+        return colliders;
+    }
+
+    /**
+     * Returns the render-only tiles of the section.
+     * @return The terrain tiles.
+     */
+    public List<GameObject> getTiles() {
+        return tiles;
+    }
+}
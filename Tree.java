@@ -1,17 +1,16 @@
 package pepse.world.trees;
 
 import danogl.GameObject;
-import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
 import pepse.util.Observer;
+import pepse.util.RenderablePalette;
 import pepse.world.Block;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * The Tree class represents a tree object in the game world.
@@ -19,11 +18,31 @@ import java.util.Random;
  */
 public class Tree implements Observer {
 
+    /**
+     * The ways the foliage of a tree is represented.
+     */
+    public enum Foliage {
+        /**
+         * A leaf game object per foliage cell.
+         */
+        LEAFS,
+        /**
+         * A single canopy game object drawing every leaf of the crown.
+         */
+        CANOPY
+    }
+
     /**
      * leafs foliage size.
      */
     public static final int LEAFS_FOLIAGE_SIZE = 7;
 
+    /**
+     * How far the drawn foliage of a tree reaches beyond its trunk on either side, the turned and
+     * widened leafs included.
+     */
+    public static final float FOLIAGE_OVERHANG = LEAFS_FOLIAGE_SIZE / 2 * Block.SIZE + Canopy.PADDING;
+
     /*
      * tree trunk color.
      */
@@ -34,11 +53,31 @@ public class Tree implements Observer {
      */
     private static final Color TREE_LEAF_COLOR = new Color(50, 200, 30);
 
+    /*
+     * number of shades in the trunk and leaf palettes.
+     */
+    private static final int PALETTE_SIZE = 16;
+
+    /*
+     * shared trunk renderables.
+     */
+    private static final RenderablePalette TRUNK_PALETTE = new RenderablePalette(TREE_TRUNK_COLOR, PALETTE_SIZE);
+
+    /*
+     * shared leaf renderables.
+     */
+    private static final RenderablePalette LEAF_PALETTE = new RenderablePalette(TREE_LEAF_COLOR, PALETTE_SIZE);
+
     /*
      * tree fruits colors.
      */
     private static final Color[] FRUIT_COLORS = new Color[] {Color.red,Color.yellow,Color.orange,Color.green};
 
+    /*
+     * shared fruit renderables, one per fruit color.
+     */
+    private static final Renderable[] FRUIT_RENDERABLES = createFruitRenderables();
+
     /*
      * creating leaf probability.
      */
@@ -74,39 +113,84 @@ public class Tree implements Observer {
      */
     private final ArrayList<Leaf> leafs;
 
+    /*
+     * the canopy drawing the leafs, or null if the leafs are leaf objects.
+     */
+    private final Canopy canopy;
+
     /*
      * fruits list.
      */
     private final ArrayList<Fruit> fruits;
 
     /*
-     * random.
+     * the random stream the leafs and fruits are laid out from.
      */
-    private final Random random;
+    private final SplittableRandom random;
 
     /*
      * current fruit color index.
      */
     private int fruitColorIndex;
 
+    /*
+     * the number of avatar jumps the tree reacted to, picks the trunk shade.
+     */
+    private int jumpCount;
+
+    /*
+     * trunk position, picks the trunk shade.
+     */
+    private final int trunkX, trunkY;
+
+    /**
+     * Constructs a Tree object with the specified top-left corner and dimensions,
+     * with a leaf object per foliage cell.
+     *
+     * @param topLeftCorner        The top-left corner of the tree object.
+     * @param dimensions           The dimensions of the tree object.
+     * @param random               The random stream the tree is generated from, the same stream
+     *                             always yields the same leafs and fruits.
+     */
+    public Tree(Vector2 topLeftCorner, Vector2 dimensions, SplittableRandom random) {
+        this(topLeftCorner, dimensions, random, Foliage.LEAFS);
+    }
+
     /**
-     * Constructs a Tree object with the specified top-left corner, dimensions, and day-night cycle length.
+     * Constructs a Tree object with the specified top-left corner, dimensions and foliage
+     * representation. Both representations lay out the same leafs and fruits.
      *
      * @param topLeftCorner        The top-left corner of the tree object.
      * @param dimensions           The dimensions of the tree object.
-     * @param dayNightCycleLength  The length of the day-night cycle in the game world.
+     * @param random               The random stream the tree is generated from, the same stream
+     *                             always yields the same leafs and fruits.
+     * @param foliage              The way the foliage is represented.
      */
-    public Tree(Vector2 topLeftCorner, Vector2 dimensions, float dayNightCycleLength) {
-        this.trunk = new Trunk(
+    public Tree(
+            Vector2 topLeftCorner,
+            Vector2 dimensions,
+            SplittableRandom random,
+            Foliage foliage
+    ) {
+        this.trunkX = (int) topLeftCorner.x();
+        this.trunkY = (int) topLeftCorner.y();
+        this.trunk = Trunk.create(
                 topLeftCorner,
                 dimensions,
-                new RectangleRenderable(ColorSupplier.approximateColor(TREE_TRUNK_COLOR))
+                TRUNK_PALETTE.pick(trunkX, trunkY)
         );
         this.leafs = new ArrayList<>();
+        this.canopy = foliage == Foliage.CANOPY ? createCanopy(topLeftCorner) : null;
         this.fruits = new ArrayList<>();
-        this.random = new Random();
+        this.random = random;
         this.fruitColorIndex = 0;
-        createLeafsAndFruits(topLeftCorner, dayNightCycleLength);
+        this.jumpCount = 0;
+        try {
+            createLeafsAndFruits(topLeftCorner);
+        } catch (RuntimeException | Error e) {
+            release();
+            throw e;
+        }
     }
 
     /**
@@ -127,6 +211,15 @@ public class Tree implements Observer {
         return leafs;
     }
 
+    /**
+     * Retrieves the canopy drawing the tree's leafs.
+     *
+     * @return The canopy, or null if the leafs are leaf objects.
+     */
+    public Canopy getCanopy() {
+        return canopy;
+    }
+
     /**
      * Retrieves the list of fruits belonging to the tree.
      *
@@ -144,43 +237,84 @@ public class Tree implements Observer {
      * Additionally, it updates the appearance of fruits by
      * changing their colors based on a predefined color array.
      * Finally, it updates the appearance of the tree trunk to ensure consistency with the rest of the tree.
+     * The leafs are spun by their sway system and the fruits and trunk switch between shared
+     * renderables, so reacting to a jump allocates nothing.
      */
     @Override
     public void update() {
-        for (Leaf leaf : leafs) {
-            new Transition<Float>(
-                    leaf,
-                    leaf.renderer()::setRenderableAngle,
-                    leaf.renderer().getRenderableAngle(),
-                    leaf.renderer().getRenderableAngle() + LEAFS_ANGLE_CHANGE_WHEN_AVATAR_JUMPS,
-                    Transition.LINEAR_INTERPOLATOR_FLOAT,
-                    LEAF_ANGLE_CHANGE_CYCLE_LENGTH_WHEN_AVATAR_JUMPS,
-                    Transition.TransitionType.TRANSITION_ONCE,
-                    null
+        for (int i = 0; i < leafs.size(); i++) {
+            leafs.get(i).spin(
+                    LEAFS_ANGLE_CHANGE_WHEN_AVATAR_JUMPS,
+                    LEAF_ANGLE_CHANGE_CYCLE_LENGTH_WHEN_AVATAR_JUMPS
             );
         }
-        for (Fruit fruit : fruits) {
-            fruit.renderer().setRenderable(
-                    new OvalRenderable(FRUIT_COLORS[(fruitColorIndex+1) % FRUIT_COLORS.length])
-            );
+        if (canopy != null) {
+            canopy.spin(LEAFS_ANGLE_CHANGE_WHEN_AVATAR_JUMPS, LEAF_ANGLE_CHANGE_CYCLE_LENGTH_WHEN_AVATAR_JUMPS);
         }
-        trunk.renderer().setRenderable(
-                new RectangleRenderable(ColorSupplier.approximateColor(TREE_TRUNK_COLOR))
-        );
         fruitColorIndex = (fruitColorIndex + 1) % FRUIT_COLORS.length;
+        for (int i = 0; i < fruits.size(); i++) {
+            fruits.get(i).renderer().setRenderable(FRUIT_RENDERABLES[fruitColorIndex]);
+        }
+        jumpCount++;
+        trunk.renderer().setRenderable(TRUNK_PALETTE.pick(trunkX, trunkY + jumpCount));
+    }
+
+    /**
+     * Returns the trunk, canopy, leafs and fruits of the tree to their pools once the tree left the
+     * game.
+     * The tree must not be used afterwards.
+     */
+    public void release() {
+        Trunk.release(trunk);
+        if (canopy != null) {
+            Canopy.release(canopy);
+        }
+        for (int i = 0; i < leafs.size(); i++) {
+            Leaf.release(leafs.get(i));
+        }
+        for (int i = 0; i < fruits.size(); i++) {
+            Fruit.release(fruits.get(i));
+        }
+        leafs.clear();
+        fruits.clear();
+    }
+
+    /*
+     * Creates an empty canopy covering the foliage around the tree's top-left corner.
+     *
+     * @param topLeftCorner The top-left corner of the tree.
+     * @return The canopy.
+     */
+    private static Canopy createCanopy(Vector2 topLeftCorner) {
+        Vector2 foliageTopLeftCorner = topLeftCorner.subtract(
+                Vector2.ONES.mult(LEAFS_FOLIAGE_SIZE / 2 * Block.SIZE)
+        );
+        return Canopy.create(foliageTopLeftCorner, LEAFS_FOLIAGE_SIZE);
+    }
+
+    /*
+     * Creates the shared fruit renderables.
+     *
+     * @return One renderable per fruit color.
+     */
+    private static Renderable[] createFruitRenderables() {
+        Renderable[] renderables = new Renderable[FRUIT_COLORS.length];
+        for (int i = 0; i < FRUIT_COLORS.length; i++) {
+            renderables[i] = new OvalRenderable(FRUIT_COLORS[i]);
+        }
+        return renderables;
     }
 
     /*
      * Creates leafs and fruits around the tree's top-left corner.
      *
      * @param topLeftCorner        The top-left corner of the tree.
-     * @param dayNightCycleLength  The length of the day-night cycle in the game world.
      */
-    private void createLeafsAndFruits(Vector2 topLeftCorner, float dayNightCycleLength) {
+    private void createLeafsAndFruits(Vector2 topLeftCorner) {
         {
             for (int i = -LEAFS_FOLIAGE_SIZE / 2; i < LEAFS_FOLIAGE_SIZE / 2; i++) {
                 for (int j = -LEAFS_FOLIAGE_SIZE / 2; j < LEAFS_FOLIAGE_SIZE / 2; j++) {
-                    createLeafAndFruit(topLeftCorner, dayNightCycleLength, i, j);
+                    createLeafAndFruit(topLeftCorner, i, j);
                 }
             }
         }
@@ -190,35 +324,42 @@ public class Tree implements Observer {
      * Creates a leaf and fruit at a specified position around the tree.
      *
      * @param topLeftCorner        The top-left corner of the tree.
-     * @param dayNightCycleLength  The length of the day-night cycle in the game world.
      * @param i                    The x-coordinate offset for the leaf/fruit position.
      * @param j                    The y-coordinate offset for the leaf/fruit position.
      */
-    private void createLeafAndFruit(Vector2 topLeftCorner, float dayNightCycleLength, int i, int j) {
-        float createLeaf = random.nextFloat();
-        float createFruit = random.nextFloat();
+    private void createLeafAndFruit(Vector2 topLeftCorner, int i, int j) {
+        double createLeaf = random.nextDouble();
+        double createFruit = random.nextDouble();
+        SplittableRandom leafRandom = random.split();
         Vector2 position = new Vector2(
                 topLeftCorner.x() + i * Block.SIZE,
                 topLeftCorner.y() + j * Block.SIZE
         );
         Vector2 dimensions = new Vector2(Block.SIZE, Block.SIZE);
-        if (createLeaf <= CREATE_LEAF_PROBABILITY) {
+        if (createLeaf <= CREATE_LEAF_PROBABILITY && canopy != null) {
+            canopy.addLeaf(
+                    position,
+                    LEAF_PALETTE.pickColor((int) position.x(), (int) position.y()),
+                    LEAFS_CYCLE_LENGTH,
+                    leafRandom
+            );
+        } else if (createLeaf <= CREATE_LEAF_PROBABILITY) {
             leafs.add(
                     Leaf.create(
                             position,
                             dimensions,
-                            new RectangleRenderable(ColorSupplier.approximateColor(TREE_LEAF_COLOR)),
-                            LEAFS_CYCLE_LENGTH
+                            LEAF_PALETTE.pick((int) position.x(), (int) position.y()),
+                            LEAFS_CYCLE_LENGTH,
+                            leafRandom
                     )
             );
         }
         if (createFruit <= CREATE_FRUIT_PROBABILITY && i != 0) {
             fruits.add(
-                    new Fruit(
+                    Fruit.create(
                             position,
                             dimensions,
-                            new OvalRenderable(FRUIT_COLORS[fruitColorIndex]),
-                            dayNightCycleLength
+                            FRUIT_RENDERABLES[fruitColorIndex]
                     )
             );
         }
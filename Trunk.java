@@ -1,22 +1,35 @@
 package pepse.world.trees;
 
-import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.world.Collidable;
+import pepse.world.CollisionMatrix;
+import pepse.world.PooledGameObject;
 
 /**
  * The Trunk class represents a trunk object in the game world.
  * Trunk objects are part of tree structures and provide the foundational support for branches,
  * leaves, and fruits.
  */
-public class Trunk extends GameObject {
+public class Trunk extends PooledGameObject implements Collidable {
 
     /*
      * trunk tag.
      */
     private static final String TRUNK_TAG = "trunk";
 
+    /*
+     * maximal number of idle trunks kept for reuse.
+     */
+    private static final int MAX_IDLE_TRUNKS = 256;
+
+    /*
+     * pool of released trunks.
+     */
+    private static final ObjectPool<Trunk> POOL = new ObjectPool<>(MAX_IDLE_TRUNKS);
+
     /**
      * Constructs a Trunk object with the specified parameters.
      *
@@ -30,4 +43,49 @@ public class Trunk extends GameObject {
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
         setTag(TRUNK_TAG);
     }
+
+    /**
+     * Creates a trunk, reusing a released trunk if there is one.
+     *
+     * @param topLeftCorner The top-left corner of the trunk.
+     * @param dimensions    The dimensions of the trunk.
+     * @param renderable    The renderable component defining the visual representation of the trunk.
+     * @return The trunk.
+     */
+    public static Trunk create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        Trunk trunk = POOL.acquire();
+        if (trunk == null) {
+            return new Trunk(topLeftCorner, dimensions, renderable);
+        }
+        trunk.reset(topLeftCorner, dimensions, renderable, TRUNK_TAG);
+        return trunk;
+    }
+
+    /**
+     * Releases a trunk that left the game for reuse.
+     *
+     * @param trunk The trunk, must not be used afterwards.
+     */
+    public static void release(Trunk trunk) {
+        POOL.release(trunk);
+    }
+
+    /**
+     * Returns the pool of released trunks, for its statistics.
+     *
+     * @return The trunk pool.
+     */
+    public static ObjectPool<Trunk> pool() {
+        return POOL;
+    }
+
+    /**
+     * Returns the collision type id of the trunk.
+     *
+     * @return {@link CollisionMatrix#TRUNK}.
+     */
+    @Override
+    public int collisionType() {
+        return CollisionMatrix.TRUNK;
+    }
 }
@@ -0,0 +1,190 @@
+package pepse.world;
+
+import danogl.GameObject;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSwaySystem;
+import pepse.world.trees.Tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The VisibilityManager suspends the animated objects of the loaded chunks that are out of view.
+ * A chunk is in view while it overlaps the camera, widened by a margin on each side. The leafs and
+ * fruits of a chunk out of view leave the game, so they are neither updated nor rendered, its
+ * leafs are suspended in the {@link LeafSwaySystem} and its trees stop reacting to the avatar's
+ * jumps. Terrain and trunks stay, as they don't animate and keep the world solid.
+ * <p>
+ * The sway of a leaf is a function of time, so a chunk coming back into view resumes its leafs at
+ * the phase they would have reached had they kept swaying. Fruits stay attached to their respawn
+ * scheduler, so a fruit eaten before its chunk went out of view still respawns on time.
+ * Per-frame work thus follows what is on screen rather than everything loaded.
+ */
+public class VisibilityManager {
+
+    /*
+     * The scene the chunks are in.
+     */
+    private final Scene scene;
+
+    /*
+     * The avatar, notifying the trees in view of its jumps.
+     */
+    private final Avatar avatar;
+
+    /*
+     * The sway system animating the leafs in view.
+     */
+    private final LeafSwaySystem leafSwaySystem;
+
+    /*
+     * The distance beyond each side of the camera that still counts as in view.
+     */
+    private final float margin;
+
+    /*
+     * The fully added chunks, in view or not.
+     */
+    private final List<Chunk> chunks;
+
+    /**
+     * Constructs a new VisibilityManager.
+     *
+     * @param scene The scene the chunks are in.
+     * @param avatar The avatar, notifying the trees in view of its jumps.
+     * @param leafSwaySystem The sway system animating the leafs in view.
+     * @param margin The distance beyond each side of the camera that still counts as in view.
+     */
+    public VisibilityManager(
+            Scene scene,
+            Avatar avatar,
+            LeafSwaySystem leafSwaySystem,
+            float margin
+    ) {
+        this.scene = scene;
+        this.avatar = avatar;
+        this.leafSwaySystem = leafSwaySystem;
+        this.margin = margin;
+        this.chunks = new ArrayList<>();
+    }
+
+    /**
+     * Suspends the chunks that went out of view and resumes the ones that came into view.
+     *
+     * @param camera The camera, its top-left corner and dimensions define the view.
+     */
+    public void update(GameObject camera) {
+        float minX = camera.getTopLeftCorner().x() - margin;
+        float maxX = camera.getTopLeftCorner().x() + camera.getDimensions().x() + margin;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            int chunkMinX = Chunk.minXOf(chunk.getIndex());
+            boolean inView = chunkMinX + Chunk.WIDTH > minX && chunkMinX < maxX;
+            if (inView == chunk.isHidden()) {
+                if (inView) {
+                    show(chunk);
+                } else {
+                    hide(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of chunks whose animated objects are suspended.
+     */
+    public int hiddenCount() {
+        int count = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            if (chunks.get(i).isHidden()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Starts tracking a chunk whose objects were all added to the game, animating it.
+     * It is suspended on the next update if it is out of view.
+     *
+     * @param chunk The chunk.
+     */
+    void track(Chunk chunk) {
+        chunks.add(chunk);
+        for (Tree tree : chunk.getTrees()) {
+            avatar.registerObserver(tree, tree.getTrunk().getCenter().x());
+            if (tree.getCanopy() != null) {
+                leafSwaySystem.add(tree.getCanopy());
+            }
+            for (Leaf leaf : tree.getLeafs()) {
+                leafSwaySystem.add(leaf);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a chunk about to be unloaded, and stops animating it. The animated objects of a
+     * hidden chunk are already out of the game, which is left to the caller to check beforehand.
+     *
+     * @param chunk The chunk.
+     */
+    void untrack(Chunk chunk) {
+        chunks.remove(chunk);
+        for (Tree tree : chunk.getTrees()) {
+            avatar.removeObserver(tree);
+            if (tree.getCanopy() != null) {
+                leafSwaySystem.remove(tree.getCanopy());
+            }
+            for (Leaf leaf : tree.getLeafs()) {
+                leafSwaySystem.remove(leaf);
+            }
+        }
+    }
+
+    /*
+     * Takes the animated objects of a chunk that went out of view out of the game.
+     *
+     * @param chunk The chunk.
+     */
+    private void hide(Chunk chunk) {
+        for (Tree tree : chunk.getTrees()) {
+            avatar.removeObserver(tree);
+            if (tree.getCanopy() != null) {
+                leafSwaySystem.suspend(tree.getCanopy());
+                scene.removeGameObject(tree.getCanopy(), CollisionMatrix.LEAFS_LAYER);
+            }
+            for (Leaf leaf : tree.getLeafs()) {
+                leafSwaySystem.suspend(leaf);
+                scene.removeGameObject(leaf, CollisionMatrix.LEAFS_LAYER);
+            }
+            for (Fruit fruit : tree.getFruits()) {
+                scene.removeGameObject(fruit, CollisionMatrix.FRUITS_LAYER);
+            }
+        }
+        chunk.setHidden(true);
+    }
+
+    /*
+     * Brings the animated objects of a chunk that came into view back into the game.
+     *
+     * @param chunk The chunk.
+     */
+    private void show(Chunk chunk) {
+        for (Tree tree : chunk.getTrees()) {
+            avatar.registerObserver(tree, tree.getTrunk().getCenter().x());
+            if (tree.getCanopy() != null) {
+                scene.addGameObject(tree.getCanopy(), CollisionMatrix.LEAFS_LAYER);
+                leafSwaySystem.resume(tree.getCanopy());
+            }
+            for (Leaf leaf : tree.getLeafs()) {
+                scene.addGameObject(leaf, CollisionMatrix.LEAFS_LAYER);
+                leafSwaySystem.resume(leaf);
+            }
+            for (Fruit fruit : tree.getFruits()) {
+                scene.addGameObject(fruit, CollisionMatrix.FRUITS_LAYER);
+            }
+        }
+        chunk.setHidden(false);
+    }
+}
@@ -0,0 +1,32 @@
+package pepse.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives the random streams the world is generated from.
+ * Every stream is a pure function of the world seed and a world coordinate, so any part of the
+ * world can be discarded and later regenerated identically, on any thread and in any order.
+ */
+public final class WorldRandom {
+
+    /*
+     * Odd constant spreading consecutive coordinates over the seed space.
+     */
+    private static final long COORDINATE_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /*
+     * Not instantiable.
+     */
+    private WorldRandom() {
+    }
+
+    /**
+     * Returns the random stream of the given block column.
+     * @param worldSeed The world seed.
+     * @param column The block column index.
+     * @return A new random stream, identical for every call with the same arguments.
+     */
+    public static SplittableRandom forColumn(long worldSeed, int column) {
+        return new SplittableRandom(worldSeed ^ (column * COORDINATE_GAMMA));
+    }
+}
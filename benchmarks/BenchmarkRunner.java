@@ -0,0 +1,34 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler, which reports the allocation rate and the bytes
+ * allocated per operation next to the time of each benchmark.
+ * Run with a regular expression selecting the benchmarks as an optional argument, all by default.
+ */
+public class BenchmarkRunner {
+
+    /*
+     * The expression selecting every benchmark of the package.
+     */
+    private static final String ALL_BENCHMARKS = "pepse\\.benchmarks\\..*";
+
+    /**
+     * Runs the selected benchmarks and prints their results.
+     *
+     * @param args Optionally, a regular expression selecting the benchmarks to run.
+     * @throws RunnerException If a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ALL_BENCHMARKS)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures growing the trees of x ranges of several widths, in both foliage representations.
+ * The trees are never released, so every leaf and fruit is a fresh allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class FloraBenchmark {
+
+    /*
+     * The window dimensions the terrain is generated for.
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+
+    /*
+     * The world seed.
+     */
+    private static final int SEED = 0;
+
+    /**
+     * The width of the range the trees grow in, in pixels: a chunk, a window and four windows.
+     */
+    @Param({"480", "1920", "7680"})
+    public int width;
+
+    /**
+     * The way the foliage of each tree is represented.
+     */
+    @Param({"LEAFS", "CANOPY"})
+    public Tree.Foliage foliage;
+
+    /*
+     * The flora generator.
+     */
+    private Flora flora;
+
+    /**
+     * Creates the flora generator.
+     */
+    @Setup
+    public void setUp() {
+        flora = new Flora(new Terrain(WINDOW_DIMENSIONS, SEED), SEED, foliage);
+    }
+
+    /**
+     * Grows the trees of the range.
+     *
+     * @return The trees.
+     */
+    @Benchmark
+    public List<Tree> createInRange() {
+        return flora.createInRange(0, width);
+    }
+}
@@ -0,0 +1,76 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.HeadlessSimulation;
+import pepse.PepseWorld;
+import pepse.util.ScriptedInputSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single simulated frame of a populated world, without rendering: every game object
+ * updated, the world streamed and culled, and the leafs, the day and the fruits advanced, while
+ * the avatar jumps in place. The avatar stays in its chunk, so no chunk is generated in the
+ * background of the measured frames.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class SimulationFrameBenchmark {
+
+    /*
+     * The world seed.
+     */
+    private static final long SEED = 0;
+
+    /*
+     * The number of ticks between the avatar's jumps.
+     */
+    private static final int STEPS_BETWEEN_JUMPS = 90;
+
+    /*
+     * The number of ticks simulated before measuring, for the avatar to land and the trees to
+     * react to its first jumps.
+     */
+    private static final int POPULATING_TICKS = 600;
+
+    /*
+     * The simulation.
+     */
+    private HeadlessSimulation simulation;
+
+    /**
+     * Builds the world, whose chunks around the avatar load right away, and lets it settle.
+     */
+    @Setup
+    public void setUp() {
+        simulation = new HeadlessSimulation(
+                SEED,
+                ScriptedInputSource.runAndJump(0, STEPS_BETWEEN_JUMPS)
+        );
+        simulation.run(POPULATING_TICKS);
+    }
+
+    /**
+     * Simulates a single frame.
+     *
+     * @return The world.
+     */
+    @Benchmark
+    public PepseWorld frame() {
+        simulation.run(1);
+        return simulation.getWorld();
+    }
+}
@@ -0,0 +1,82 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.TerrainSection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the terrain of x ranges of several widths, block by block and as the baked
+ * section a chunk is streamed in as.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TerrainGenerationBenchmark {
+
+    /*
+     * The window dimensions the terrain is generated for.
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+
+    /*
+     * The world seed.
+     */
+    private static final int SEED = 0;
+
+    /**
+     * The width of the generated range, in pixels: a chunk, a window and four windows.
+     */
+    @Param({"480", "1920", "7680"})
+    public int width;
+
+    /*
+     * The terrain generator.
+     */
+    private Terrain terrain;
+
+    /**
+     * Creates the terrain generator.
+     */
+    @Setup
+    public void setUp() {
+        terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+    }
+
+    /**
+     * Creates a block per terrain cell of the range.
+     *
+     * @return The blocks.
+     */
+    @Benchmark
+    public List<Block> createInRange() {
+        return terrain.createInRange(0, width);
+    }
+
+    /**
+     * Creates the merged colliders and the pre-rendered tile image of the range.
+     *
+     * @return The terrain section.
+     */
+    @Benchmark
+    public TerrainSection createBakedSection() {
+        return terrain.createSection(0, width, Terrain.Mode.BAKED);
+    }
+}
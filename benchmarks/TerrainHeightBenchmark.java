@@ -0,0 +1,98 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluating the ground height of a single column, and of a chunk's worth of columns in
+ * one batch. Each invocation moves on to the next columns, so nothing is evaluated twice in a row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TerrainHeightBenchmark {
+
+    /*
+     * The window dimensions the terrain is generated for.
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+
+    /*
+     * The world seed.
+     */
+    private static final int SEED = 0;
+
+    /*
+     * The number of columns evaluated per batch, one chunk's worth.
+     */
+    private static final int BATCH_SIZE = 16;
+
+    /*
+     * The number of columns the evaluated column wraps around at.
+     */
+    private static final int COLUMNS = 1 << 20;
+
+    /*
+     * The terrain generator.
+     */
+    private Terrain terrain;
+
+    /*
+     * The batch the heights are written to.
+     */
+    private float[] heights;
+
+    /*
+     * The next column to evaluate.
+     */
+    private int column;
+
+    /**
+     * Creates the terrain generator.
+     */
+    @Setup
+    public void setUp() {
+        terrain = new Terrain(WINDOW_DIMENSIONS, SEED);
+        heights = new float[BATCH_SIZE];
+        column = 0;
+    }
+
+    /**
+     * Evaluates the ground height of the next column.
+     *
+     * @return The ground height.
+     */
+    @Benchmark
+    public float groundHeightAt() {
+        column = (column + 1) % COLUMNS;
+        return terrain.groundHeightAt(column * Block.SIZE);
+    }
+
+    /**
+     * Evaluates the ground heights of the next chunk's worth of columns.
+     *
+     * @return The heights.
+     */
+    @Benchmark
+    public float[] fillGroundHeights() {
+        column = (column + BATCH_SIZE) % COLUMNS;
+        terrain.fillGroundHeights(column * Block.SIZE, heights);
+        return heights;
+    }
+}
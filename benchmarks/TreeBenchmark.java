@@ -0,0 +1,137 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.SpatialObserverRegistry;
+import pepse.util.WorldRandom;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSwaySystem;
+import pepse.world.trees.Tree;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating a single tree with its leafs and fruits and releasing it, as a chunk's trees
+ * are released when it unloads, so the trunk, leafs, fruits and canopy come from their pools after
+ * the first invocation. Also measures the trees' reaction to the avatar's jump: notifying every
+ * tree around the avatar, as the avatar does, each spinning its leafs and recoloring its fruits
+ * and trunk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TreeBenchmark {
+
+    /*
+     * The window dimensions the terrain is generated for.
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+
+    /*
+     * The world seed.
+     */
+    private static final int SEED = 0;
+
+    /*
+     * The height of a created tree, in blocks.
+     */
+    private static final int TREE_HEIGHT_IN_BLOCKS = 8;
+
+    /*
+     * The width of the x range the notified trees grow in: the loaded chunks around the avatar.
+     */
+    private static final int WORLD_WIDTH = 3 * (int) WINDOW_DIMENSIONS.x();
+
+    /*
+     * The width of a bucket of the observer registry, a chunk's width as in the avatar's registry.
+     */
+    private static final float BUCKET_WIDTH = 16 * Block.SIZE;
+
+    /**
+     * The way the foliage of each tree is represented.
+     */
+    @Param({"LEAFS", "CANOPY"})
+    public Tree.Foliage foliage;
+
+    /*
+     * The trees notified of the jumps, registered around x = 0.
+     */
+    private SpatialObserverRegistry observers;
+
+    /*
+     * The sway system spinning the notified trees' foliage.
+     */
+    private LeafSwaySystem leafSwaySystem;
+
+    /*
+     * The column the next created tree draws its random stream from.
+     */
+    private int column;
+
+    /**
+     * Grows the notified trees and registers them, with their foliage in a sway system.
+     */
+    @Setup
+    public void setUp() {
+        Flora flora = new Flora(new Terrain(WINDOW_DIMENSIONS, SEED), SEED, foliage);
+        List<Tree> trees = flora.createInRange(-WORLD_WIDTH / 2, WORLD_WIDTH / 2);
+        observers = new SpatialObserverRegistry(BUCKET_WIDTH);
+        leafSwaySystem = new LeafSwaySystem();
+        for (Tree tree : trees) {
+            observers.register(tree, tree.getTrunk().getCenter().x());
+            if (tree.getCanopy() != null) {
+                leafSwaySystem.add(tree.getCanopy());
+            }
+            for (Leaf leaf : tree.getLeafs()) {
+                leafSwaySystem.add(leaf);
+            }
+        }
+        column = 0;
+    }
+
+    /**
+     * Creates a tree, with a fresh random stream per invocation, and releases it to the pools.
+     *
+     * @return The released tree.
+     */
+    @Benchmark
+    public Tree createTree() {
+        column++;
+        Tree tree = new Tree(
+                new Vector2(column * Block.SIZE, 0),
+                new Vector2(Block.SIZE, TREE_HEIGHT_IN_BLOCKS * Block.SIZE),
+                WorldRandom.forColumn(SEED, column),
+                foliage
+        );
+        tree.release();
+        return tree;
+    }
+
+    /**
+     * Notifies the trees within a window's width of the avatar of a jump.
+     *
+     * @return The sway system, which every spin went to.
+     */
+    @Benchmark
+    public LeafSwaySystem notifyJump() {
+        observers.notifyNear(0, WINDOW_DIMENSIONS.x());
+        return leafSwaySystem;
+    }
+}